@@ -4,23 +4,38 @@
  */
 package io.kernx.core;
 
+import io.kernx.core.actor.KernxActor;
+import io.kernx.core.protocol.KernxClock;
 import io.kernx.core.protocol.KernxPacket;
+import io.kernx.core.quota.Quota;
+import io.kernx.core.quota.QuotaTable;
 import io.kernx.core.state.AgentRegistry;
 import io.kernx.core.state.ResultStore;
+import io.kernx.core.trace.TraceStage;
+import io.kernx.core.trace.Tracer;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.HexFormat;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
 public class KernxDispatcher {
 
-    private final AgentRegistry registry = new AgentRegistry();
+    // Below this many members a broadcast is cheaper on the calling thread than split across cores
+    private static final int PARALLEL_FANOUT = 512;
+
+    private final KernxClock clock;
+    private final AgentRegistry registry;
+    private final QuotaTable quotas = new QuotaTable();
     private final Set<String> identityBlocklist = ConcurrentHashMap.newKeySet();
     private final List<byte[]> binarySignatures = new CopyOnWriteArrayList<>();
     private volatile boolean dpiEnabled = false; 
@@ -28,12 +43,45 @@ public class KernxDispatcher {
     private final AtomicLong totalRequests = new AtomicLong(0);
     private final AtomicLong rejectedRequests = new AtomicLong(0);
     private final AtomicLong blockedRequests = new AtomicLong(0);
-    private final Instant startTime = Instant.now();
+    private final AtomicLong throttledRequests = new AtomicLong(0);
+    private final Instant startTime;
+
+    public KernxDispatcher() {
+        this(KernxClock.system());
+    }
+
+    // Replay Mode: every timestamp the kernel produces comes from this clock
+    public KernxDispatcher(KernxClock clock) {
+        this.clock = clock;
+        this.registry = new AgentRegistry(clock, quotas);
+        this.startTime = clock.now();
+    }
+
+    // In-kernel access: deploy behaviors and obtain ActorRefs without going through dispatch()
+    public AgentRegistry registry() {
+        return registry;
+    }
+
+    public QuotaTable quotas() {
+        return quotas;
+    }
 
     public void dispatch(KernxPacket packet) {
         totalRequests.incrementAndGet();
+        Tracer.INSTANCE.mark(packet, TraceStage.DISPATCH_IN);
         byte[] payload = packet.payload().array();
 
+        // --- LAYER 0: TENANT QUOTAS (before any parsing, so floods stay cheap) ---
+        Quota sourceQuota = null;
+        if (quotas.active()) {
+            long nowNanos = clock.nanoTime();
+            sourceQuota = quotas.source(packet.source(), nowNanos);
+            if (sourceQuota != null && !sourceQuota.tryRate(nowNanos)) {
+                throttledRequests.incrementAndGet();
+                throw KernxRejection.SOURCE_RATE_LIMITED;
+            }
+        }
+
         // --- LAYER 1: DEEP PACKET INSPECTION ---
         if (dpiEnabled && !binarySignatures.isEmpty()) {
             for (byte[] signature : binarySignatures) {
@@ -69,45 +117,239 @@ public class KernxDispatcher {
 
             var actor = registry.get(agentId);
             if (actor != null) {
+                // Source and trace are carried through so tenancy and tracing survive routing;
+                // reserved meta (quota slot, ask correlation) never crosses in from outside
                 var newPacket = new KernxPacket(
-                    packet.id(), "Router", Instant.now(), 
-                    ByteBuffer.wrap(message.getBytes()), Collections.emptyMap()
+                    packet.id(), packet.source(), clock.now(), 
+                    ByteBuffer.wrap(message.getBytes()), Tracer.INSTANCE.propagate(packet.meta())
                 );
 
-                boolean accepted = actor.offer(newPacket);
-
-                if (!accepted) {
-                    rejectedRequests.incrementAndGet();
+                KernxRejection rejection = route(actor, agentId, newPacket, sourceQuota);
+                if (rejection == KernxRejection.ACTOR_OVERLOADED) {
                     // SILENCED LOG
                     throw new IllegalStateException("ACTOR_OVERLOADED");
                 }
+                if (rejection != null) throw rejection;
                 // SILENCED: System.out.println("[KERNEL] ➡️ Routed to: " + agentId);
             } else {
                 ResultStore.INSTANCE.put(packet.id(), "AGENT_NOT_FOUND");
             }
         }
 
+        else if (msg.startsWith("BCAST")) {
+            // BCAST <group|prefix*> <message>: parsed and inspected once, then fanned out
+            if (tokens.length < 3) return;
+            int bodyStart = msg.indexOf(' ', msg.indexOf(' ') + 1) + 1;
+            broadcast(packet, tokens[1], msg.substring(bodyStart).getBytes(StandardCharsets.UTF_8), sourceQuota);
+        }
+
         // Keep Control Plane logs (These are rare, so they are fine)
         else if (msg.startsWith("STATS")) {
-            long uptime = java.time.Duration.between(startTime, Instant.now()).toSeconds();
+            long uptime = java.time.Duration.between(startTime, clock.now()).toSeconds();
             String report = """
-                { "uptime": %d, "processed": %d, "rejected": %d, "active_agents": %d }
-                """.formatted(uptime, totalRequests.get(), rejectedRequests.get(), registry.count());
+                { "uptime": %d, "processed": %d, "rejected": %d, "throttled": %d, "active_agents": %d }
+                """.formatted(uptime, totalRequests.get(), rejectedRequests.get(), throttledRequests.get(), registry.count());
             ResultStore.INSTANCE.put(packet.id(), report);
         }
         else if (msg.startsWith("DEPLOY")) {
+            // DEPLOY <agentId> [group ...]
             registry.register(tokens[1]);
+            for (int i = 2; i < tokens.length; i++) registry.join(tokens[i].trim(), tokens[1]);
             ResultStore.INSTANCE.put(packet.id(), "DEPLOY_SUCCESS");
         }
+        else if (msg.startsWith("JOIN")) {
+            // JOIN <agentId> <group>
+            if (tokens.length < 3) return;
+            boolean joined = registry.join(tokens[2].trim(), tokens[1]);
+            ResultStore.INSTANCE.put(packet.id(), joined ? "JOIN_SUCCESS" : "AGENT_NOT_FOUND");
+        }
+        else if (msg.startsWith("LEAVE")) {
+            // LEAVE <agentId> <group>
+            if (tokens.length < 3) return;
+            registry.leave(tokens[2].trim(), tokens[1]);
+            ResultStore.INSTANCE.put(packet.id(), "LEAVE_SUCCESS");
+        }
         else if (msg.startsWith("CONFIG")) {
              // Config logic here (Keep it simple)
         }
+        else if (msg.startsWith("QUOTA")) {
+            // QUOTA SOURCE|AGENT <id> <rate/s> <burst> <max_in_flight>   (0 = unlimited; SOURCE * = default per tenant)
+            // QUOTA SOURCE|AGENT <id> OFF
+            // QUOTA STATS SOURCE|AGENT <id>                                 (per-tenant / per-agent throttle counts)
+            if (tokens.length >= 4 && tokens[1].equals("STATS")) {
+                String id = tokens[3].trim();
+                boolean ofSource = tokens[2].equals("SOURCE");
+                Quota quota = ofSource ? quotas.source(id) : quotas.agent(id);
+                if (quota == null) {
+                    ResultStore.INSTANCE.put(packet.id(), "QUOTA_NOT_FOUND");
+                    return;
+                }
+                String report = """
+                    { "%s": "%s", "throttled": %d, "in_flight": %d }
+                    """.formatted(ofSource ? "source" : "agent", id, quota.rejected(), quota.inFlight());
+                ResultStore.INSTANCE.put(packet.id(), report);
+                return;
+            }
+            if (tokens.length < 4) {
+                ResultStore.INSTANCE.put(packet.id(), "QUOTA_INVALID");
+                return;
+            }
+            boolean source = tokens[1].equals("SOURCE");
+            if (!source && !tokens[1].equals("AGENT")) {
+                ResultStore.INSTANCE.put(packet.id(), "QUOTA_INVALID");
+                return;
+            }
+            if (tokens[3].equals("OFF")) {
+                if (source) quotas.unlimitSource(tokens[2]); else quotas.unlimitAgent(tokens[2]);
+                ResultStore.INSTANCE.put(packet.id(), "QUOTA_CLEARED");
+                return;
+            }
+            if (tokens.length < 6) {
+                ResultStore.INSTANCE.put(packet.id(), "QUOTA_INVALID");
+                return;
+            }
+            long rate = Long.parseLong(tokens[3].trim());
+            long burst = Long.parseLong(tokens[4].trim());
+            int inFlight = Integer.parseInt(tokens[5].trim());
+            if (source) quotas.limitSource(tokens[2], rate, burst, inFlight);
+            else quotas.limitAgent(tokens[2], rate, burst, inFlight);
+            ResultStore.INSTANCE.put(packet.id(), "QUOTA_SET");
+        }
+        else if (msg.startsWith("TRACE")) {
+            // TRACE SAMPLE <N>   trace 1 in N packets (0 = off)
+            // TRACE DUMP         write the ring buffers to the configured trace file
+            if (tokens.length >= 3 && tokens[1].equals("SAMPLE")) {
+                Tracer.INSTANCE.setSampleRate(Integer.parseInt(tokens[2].trim()));
+                ResultStore.INSTANCE.put(packet.id(), "TRACE_SAMPLING_SET");
+            } else if (tokens.length >= 2 && tokens[1].trim().equals("DUMP")) {
+                Path file = Path.of(System.getProperty("kernx.trace.file", "kernx-trace.json"));
+                try {
+                    int events = Tracer.INSTANCE.exportChromeTrace(file);
+                    ResultStore.INSTANCE.put(packet.id(), "TRACE_WRITTEN " + events);
+                } catch (IOException e) {
+                    ResultStore.INSTANCE.put(packet.id(), "TRACE_FAILED");
+                }
+            } else {
+                ResultStore.INSTANCE.put(packet.id(), "TRACE_INVALID");
+            }
+        }
         else if (msg.startsWith("BLOCK")) {
             identityBlocklist.add(tokens[1]);
             registry.remove(tokens[1]); 
         }
     }
 
+    /**
+     * Admission + enqueue for one agent. Returns null when accepted, otherwise the
+     * (pre-built) rejection, so fan-out can tally failures without throwing.
+     */
+    private KernxRejection route(KernxActor actor, String agentId, KernxPacket routed, Quota sourceQuota) {
+        Quota agentQuota = quotas.active() ? quotas.agent(agentId) : null;
+        if (agentQuota != null) {
+            if (!agentQuota.tryRate(clock.nanoTime())) {
+                throttledRequests.incrementAndGet();
+                return KernxRejection.AGENT_RATE_LIMITED;
+            }
+            if (!agentQuota.admitsDepth(actor.pending())) {
+                throttledRequests.incrementAndGet();
+                return KernxRejection.AGENT_QUOTA_EXCEEDED;
+            }
+        }
+        if (sourceQuota != null) {
+            if (!sourceQuota.tryAcquire()) {
+                throttledRequests.incrementAndGet();
+                return KernxRejection.SOURCE_QUOTA_EXCEEDED;
+            }
+            routed = quotas.holdSlot(routed, sourceQuota);
+        }
+        // Stamped before the offer: once it's in, the actor may dequeue it before we get to mark
+        long enqueuedAt = Tracer.INSTANCE.stamp(routed);
+        if (!actor.offer(routed)) {
+            if (sourceQuota != null) sourceQuota.release();
+            rejectedRequests.incrementAndGet();
+            return KernxRejection.ACTOR_OVERLOADED;
+        }
+        Tracer.INSTANCE.mark(routed, TraceStage.ENQUEUED, enqueuedAt);
+        return null;
+    }
+
+    /**
+     * Delivers one shared payload to every member of a group (or prefix match).
+     * Each member gets its own envelope ("<id>/<agentId>") so answers don't collide in the
+     * ResultStore, and its own duplicate() view of the payload so one member's reads never
+     * move another's position. The backing array itself is shared (zero-copy) and must be
+     * treated as read-only by behaviors. Large fan-outs are split across cores; per-member
+     * backpressure is tallied into a single report stored under the broadcast's id.
+     */
+    private void broadcast(KernxPacket packet, String target, byte[] body, Quota sourceQuota) {
+        String[] members = registry.resolve(target);
+        ByteBuffer shared = ByteBuffer.wrap(body);
+        String idPrefix = packet.id() + "/";
+        Instant now = clock.now();
+        Map<String, String> meta = Tracer.INSTANCE.propagate(packet.meta());
+
+        FanOutTally tally;
+        if (members.length < PARALLEL_FANOUT) {
+            tally = fanOut(members, 0, members.length, idPrefix, packet.source(), meta, now, shared, sourceQuota);
+        } else {
+            int chunks = Math.min(Runtime.getRuntime().availableProcessors(), members.length / PARALLEL_FANOUT + 1);
+            tally = IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> fanOut(members,
+                        (int) ((long) members.length * c / chunks),
+                        (int) ((long) members.length * (c + 1) / chunks),
+                        idPrefix, packet.source(), meta, now, shared, sourceQuota))
+                .reduce(new FanOutTally(), FanOutTally::merge);
+        }
+
+        String report = """
+            { "target": "%s", "members": %d, "delivered": %d, "rejected": %d, "overloaded": %d, "rate_limited": %d, "quota_exceeded": %d, "gone": %d }
+            """.formatted(target, members.length, tally.delivered, members.length - tally.delivered,
+                    tally.overloaded, tally.rateLimited, tally.quotaExceeded, tally.gone);
+        ResultStore.INSTANCE.put(packet.id(), report);
+    }
+
+    private FanOutTally fanOut(String[] members, int from, int to, String idPrefix, String source,
+                               Map<String, String> meta, Instant now, ByteBuffer shared, Quota sourceQuota) {
+        FanOutTally tally = new FanOutTally();
+        String trace = meta.isEmpty() ? null : meta.get(Tracer.TRACE_KEY);
+        for (int i = from; i < to; i++) {
+            var actor = registry.get(members[i]);
+            if (actor == null) {
+                tally.gone++; // Removed since the snapshot was taken
+                continue;
+            }
+            var routed = new KernxPacket(idPrefix + members[i], source, now, shared.duplicate(), meta);
+            // Traced broadcasts: one row per member, or their stages overwrite each other
+            if (trace != null) {
+                routed = routed.withMeta(Tracer.TRACE_KEY, trace + "/" + members[i]);
+                Tracer.INSTANCE.mark(routed, TraceStage.DISPATCH_IN);
+            }
+            tally.count(route(actor, members[i], routed, sourceQuota));
+        }
+        return tally;
+    }
+
+    // Per-member outcome of one fan-out chunk; chunks are merged into the broadcast report
+    private static final class FanOutTally {
+        long delivered, overloaded, rateLimited, quotaExceeded, gone;
+
+        void count(KernxRejection rejection) {
+            if (rejection == null) delivered++;
+            else if (rejection == KernxRejection.ACTOR_OVERLOADED) overloaded++;
+            else if (rejection == KernxRejection.SOURCE_RATE_LIMITED || rejection == KernxRejection.AGENT_RATE_LIMITED) rateLimited++;
+            else quotaExceeded++;
+        }
+
+        FanOutTally merge(FanOutTally other) {
+            delivered += other.delivered;
+            overloaded += other.overloaded;
+            rateLimited += other.rateLimited;
+            quotaExceeded += other.quotaExceeded;
+            gone += other.gone;
+            return this;
+        }
+    }
+
     private boolean containsSequence(byte[] source, byte[] match) {
         if (match.length == 0 || source.length < match.length) return false;
         for (int i = 0; i <= source.length - match.length; i++) {
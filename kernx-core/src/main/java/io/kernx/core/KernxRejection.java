@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2026 Kernx. All rights reserved.
+ * Licensed under the Business Source License 1.1.
+ */
+package io.kernx.core;
+
+/**
+ * Load-Shedding Signal.
+ * Thrown by the dispatcher when a tenant or agent quota turns a packet away; asks fail with
+ * one when the target is overloaded or has been removed.
+ * Every instance is a pre-built, fully immutable singleton: no stack trace, no suppressed
+ * exceptions, no cause. Shedding load therefore never allocates, and no thread can leave
+ * state behind on an instance every other thread shares.
+ *
+ * NOTE: Mailbox backpressure keeps the Kernel's long-standing contract and still surfaces
+ * from dispatch() as IllegalStateException("ACTOR_OVERLOADED"). {@link #ACTOR_OVERLOADED}
+ * is only used where no exception is thrown (fan-out tallies, failed asks).
+ */
+public final class KernxRejection extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final KernxRejection ACTOR_OVERLOADED = new KernxRejection("ACTOR_OVERLOADED");
+    public static final KernxRejection SOURCE_RATE_LIMITED = new KernxRejection("SOURCE_RATE_LIMITED");
+    public static final KernxRejection SOURCE_QUOTA_EXCEEDED = new KernxRejection("SOURCE_QUOTA_EXCEEDED");
+    public static final KernxRejection AGENT_RATE_LIMITED = new KernxRejection("AGENT_RATE_LIMITED");
+    public static final KernxRejection AGENT_QUOTA_EXCEEDED = new KernxRejection("AGENT_QUOTA_EXCEEDED");
+    public static final KernxRejection AGENT_GONE = new KernxRejection("AGENT_GONE");
+
+    private KernxRejection(String reason) {
+        // No cause, suppression disabled, stack trace not writable
+        super(reason, null, false, false);
+    }
+}
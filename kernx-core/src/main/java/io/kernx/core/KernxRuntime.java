@@ -6,10 +6,16 @@
  */
 package io.kernx.core;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 
 import io.kernx.core.protocol.KernxPacket;
+import io.kernx.core.replay.PacketRecorder;
+import io.kernx.core.replay.PacketReplayer;
+import io.kernx.core.trace.Tracer;
 
 /**
  * The deterministic runtime entry point for the Kernx Platform.
@@ -41,15 +47,73 @@ public class KernxRuntime {
     public void boot() {
         System.out.println("[INFO] Booting Kernel...");
         KernxDispatcher dispatcher = new KernxDispatcher();
+
+        // -----------------------------------------------------
+        // Optional Flight Recorder: -Dkernx.record=/path/to/file
+        // -----------------------------------------------------
+        PacketRecorder recorder = openRecorder(System.getProperty("kernx.record"));
+
+        // -----------------------------------------------------
+        // Optional Tracing: -Dkernx.trace.sample=N (1 in N) [-Dkernx.trace.file=kernx-trace.json]
+        // -----------------------------------------------------
+        enableTracing(Integer.getInteger("kernx.trace.sample", 0));
         
         // -----------------------------------------------------
         // FIX: Start the HTTP Server FIRST (So Python can connect)
         // -----------------------------------------------------
-        new io.kernx.core.adapters.HttpAdapter().start(dispatcher);
+        new io.kernx.core.adapters.HttpAdapter(recorder).start(dispatcher);
+
+        // -----------------------------------------------------
+        // Optional Replay: -Dkernx.replay=/path/to/file [-Dkernx.replay.speed=1|N|max]
+        // -----------------------------------------------------
+        String replayFile = System.getProperty("kernx.replay");
+        if (replayFile != null) {
+            double speed = parseSpeed(System.getProperty("kernx.replay.speed", "1"));
+            Thread.ofVirtual().name("replay").start(() -> {
+                try {
+                    var report = new PacketReplayer(speed).replay(Path.of(replayFile), dispatcher);
+                    System.out.println("[INFO] Replay complete: " + report);
+                } catch (IOException e) {
+                    System.out.println("[ERROR] Replay failed: " + e.getMessage());
+                }
+            });
+        }
         
         // -----------------------------------------------------
         // THEN start the Console Listener (This blocks the thread)
         // -----------------------------------------------------
-        new io.kernx.core.adapters.StdInAdapter().start(dispatcher);
+        new io.kernx.core.adapters.StdInAdapter(recorder).start(dispatcher);
+    }
+
+    private static PacketRecorder openRecorder(String file) {
+        if (file == null) return null;
+        try {
+            PacketRecorder recorder = new PacketRecorder(Path.of(file));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    recorder.close();
+                } catch (IOException ignored) {}
+            }));
+            System.out.println("[INFO] Recording inbound traffic to " + file);
+            return recorder;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void enableTracing(int every) {
+        if (every <= 0) return;
+        Tracer.INSTANCE.setSampleRate(every);
+        Path file = Path.of(System.getProperty("kernx.trace.file", "kernx-trace.json"));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                Tracer.INSTANCE.exportChromeTrace(file);
+            } catch (IOException ignored) {}
+        }));
+        System.out.println("[INFO] Tracing 1 in " + every + " packets -> " + file);
+    }
+
+    private static double parseSpeed(String value) {
+        return "max".equalsIgnoreCase(value) ? PacketReplayer.MAX_SPEED : Double.parseDouble(value);
     }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2026 Kernx. All rights reserved.
+ * Licensed under the Business Source License 1.1.
+ */
+package io.kernx.core.actor;
+
+import io.kernx.core.protocol.KernxPacket;
+
+/**
+ * What an Agent Does With a Message.
+ * Runs on the actor's own thread, one packet at a time, so it may keep state without locks.
+ * The return value is the answer: it goes back to whoever asked, or into the ResultStore.
+ * Return null to stay silent.
+ *
+ * The packet's payload array may be shared with other agents (e.g. a BCAST); read it, never write it.
+ *
+ * NOTE: Never block on a future from {@link ActorContext#ask} inside receive(); the reply
+ * arrives through this same mailbox. Chain with thenAccept() instead.
+ */
+@FunctionalInterface
+public interface ActorBehavior {
+
+    String receive(ActorContext ctx, KernxPacket packet);
+
+    // The stock agent: acknowledges every message
+    ActorBehavior ACKNOWLEDGE = (ctx, packet) -> "Processed-" + ctx.clock().nanoTime();
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026 Kernx. All rights reserved.
+ * Licensed under the Business Source License 1.1.
+ */
+package io.kernx.core.actor;
+
+import io.kernx.core.KernxRejection;
+import io.kernx.core.ai.AiProvider;
+import io.kernx.core.protocol.KernxClock;
+import io.kernx.core.protocol.KernxPacket;
+import io.kernx.core.state.AgentRegistry;
+import io.kernx.core.state.ResultStore;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An Agent's View of the Kernel.
+ * Handed to {@link ActorBehavior#receive}; lets an agent find peers and message them
+ * without leaving the process. Replies to {@link #ask}, and its timeout, are delivered into
+ * this actor's own mailbox, so the future completes on the actor's thread and callbacks may
+ * touch its state.
+ */
+public final class ActorContext {
+
+    private static final long RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final KernxActor self;
+    private final AgentRegistry registry;
+    private final Map<String, CompletableFuture<String>> asks = new ConcurrentHashMap<>();
+
+    ActorContext(KernxActor self, AgentRegistry registry) {
+        this.self = self;
+        this.registry = registry;
+    }
+
+    public String id() {
+        return self.id();
+    }
+
+    public KernxClock clock() {
+        return self.clock();
+    }
+
+    /** This agent's model. Its futures complete off the actor thread; see {@link #emit}. */
+    public AiProvider ai() {
+        return self.brain();
+    }
+
+    /**
+     * Pushes partial output for {@code packet} (e.g. one AI token) to anyone subscribed to this
+     * agent or to the request. Never stored, and safe to call from any thread.
+     */
+    public void emit(KernxPacket packet, String chunk) {
+        ResultStore.INSTANCE.emit(self.id(), packet.id(), chunk);
+    }
+
+    /** Finds a peer by id, or null if it is not deployed. */
+    public ActorRef lookup(String agentId) {
+        return registry == null ? null : registry.ref(agentId);
+    }
+
+    public boolean tell(ActorRef target, String message) {
+        return target.send(self.id(), message, Map.of());
+    }
+
+    public CompletableFuture<String> ask(ActorRef target, String message, Duration timeout) {
+        String corr = ActorRef.nextId();
+        CompletableFuture<String> reply = new CompletableFuture<>();
+        asks.put(corr, reply);
+        reply.whenComplete((r, e) -> asks.remove(corr));
+        if (!target.send(self.id(), message, Map.of(ActorRef.REPLY_TO, self.id(), ActorRef.CORRELATION, corr))) {
+            reply.completeExceptionally(target.refusal());
+            return reply;
+        }
+        scheduleTimeout(corr, timeout.toNanos());
+        return reply;
+    }
+
+    // The timer only posts a packet; the ask itself fails on our thread when the packet is dequeued
+    private void scheduleTimeout(String corr, long delayNanos) {
+        CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS).execute(() -> {
+            if (!asks.containsKey(corr) || !self.running()) return;
+            if (!self.ref().send(self.id(), "TIMEOUT", Map.of(ActorRef.REPLY, corr, ActorRef.REPLY_ERROR, ActorRef.TIMED_OUT))) {
+                scheduleTimeout(corr, RETRY_NANOS); // Own mailbox is full; try again shortly
+            }
+        });
+    }
+
+    // Called by the owning actor's loop when a reply packet comes out of the mailbox
+    void completeAsk(String corr, String answer) {
+        CompletableFuture<String> reply = asks.get(corr);
+        if (reply != null) reply.complete(answer);
+    }
+
+    void failAsk(String corr, Throwable failure) {
+        CompletableFuture<String> reply = asks.get(corr);
+        if (reply != null) reply.completeExceptionally(failure);
+    }
+
+    // Tell the asker our behavior threw: directly for outsiders, through its mailbox for peers
+    boolean fail(String replyTo, String corr, RuntimeException e) {
+        if (replyTo == null) {
+            ActorRef.failExternal(corr, ActorRef.failure(self.id(), String.valueOf(e), e));
+            return true;
+        }
+        return deliver(replyTo, String.valueOf(e), Map.of(ActorRef.REPLY, corr, ActorRef.REPLY_ERROR, "true"));
+    }
+
+    // The target was removed before it got to this ask
+    boolean abandon(String replyTo, String corr) {
+        if (replyTo == null) {
+            ActorRef.failExternal(corr, KernxRejection.AGENT_GONE);
+            return true;
+        }
+        return deliver(replyTo, "AGENT_GONE", Map.of(ActorRef.REPLY, corr, ActorRef.REPLY_ERROR, ActorRef.GONE));
+    }
+
+    // We were removed: our own outstanding asks can never be answered now
+    void abandonAsks() {
+        for (CompletableFuture<String> reply : asks.values()) {
+            reply.completeExceptionally(KernxRejection.AGENT_GONE);
+        }
+    }
+
+    // Answer a packet that carried a correlation id; false means nobody is waiting
+    boolean reply(String replyTo, String corr, String answer) {
+        if (replyTo == null) {
+            ActorRef.completeExternal(corr, answer);
+            return true;
+        }
+        return deliver(replyTo, answer, Map.of(ActorRef.REPLY, corr));
+    }
+
+    // A full asker mailbox must not turn an answer into a timeout: keep offering until it is taken
+    private boolean deliver(String replyTo, String body, Map<String, String> meta) {
+        ActorRef asker = lookup(replyTo);
+        if (asker == null) return false;
+        if (!asker.send(self.id(), body, meta)) redeliver(asker, body, meta);
+        return true;
+    }
+
+    private void redeliver(ActorRef asker, String body, Map<String, String> meta) {
+        CompletableFuture.delayedExecutor(RETRY_NANOS, TimeUnit.NANOSECONDS).execute(() -> {
+            if (!asker.send(self.id(), body, meta) && asker.alive()) redeliver(asker, body, meta);
+        });
+    }
+}
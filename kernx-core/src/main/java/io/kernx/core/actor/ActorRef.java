@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2026 Kernx. All rights reserved.
+ * Licensed under the Business Source License 1.1.
+ */
+package io.kernx.core.actor;
+
+import io.kernx.core.KernxRejection;
+import io.kernx.core.protocol.KernxPacket;
+import io.kernx.core.trace.TraceStage;
+import io.kernx.core.trace.Tracer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Direct Line to an Agent.
+ * Messages go straight into the target's MPSC mailbox: no dispatcher parsing, no DPI,
+ * no global counters. Use this for in-kernel hops between agents.
+ * Senders outside any actor use these methods; actors should use {@link ActorContext}
+ * so replies come back through their own mailbox.
+ */
+public final class ActorRef {
+
+    // Meta keys used to route replies
+    static final String REPLY_TO = "kernx.reply-to";
+    static final String CORRELATION = "kernx.corr";
+    static final String REPLY = "kernx.reply";
+    static final String REPLY_ERROR = "kernx.reply-error";
+    static final String TIMED_OUT = "timeout";
+    static final String GONE = "gone";
+
+    static final String EXTERNAL_SOURCE = "Local";
+
+    private static final AtomicLong sequence = new AtomicLong(0);
+
+    // Asks from outside any actor have no mailbox to reply into; the target completes these directly
+    private static final Map<String, CompletableFuture<String>> externalAsks = new ConcurrentHashMap<>();
+
+    // Outside callers chain whatever they like onto an ask; it must never run in the target's loop
+    private static final Executor CALLBACKS = task -> Thread.ofVirtual().name("kernx-ask-callback").start(task);
+
+    private final KernxActor actor;
+
+    ActorRef(KernxActor actor) {
+        this.actor = actor;
+    }
+
+    public String id() {
+        return actor.id();
+    }
+
+    /** Fire-and-forget. Returns false if the target's mailbox is full or the agent was removed. */
+    public boolean tell(String message) {
+        return send(EXTERNAL_SOURCE, message, Map.of());
+    }
+
+    /** Request/reply. The future completes with the target's answer, or fails on overload or timeout. */
+    public CompletableFuture<String> ask(String message, Duration timeout) {
+        String corr = nextId();
+        CompletableFuture<String> reply = new CompletableFuture<>();
+        externalAsks.put(corr, reply);
+        reply.whenComplete((r, e) -> externalAsks.remove(corr));
+        if (!send(EXTERNAL_SOURCE, message, Map.of(CORRELATION, corr))) {
+            reply.completeExceptionally(refusal());
+            return reply;
+        }
+        return reply.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    boolean send(String source, String message, Map<String, String> meta) {
+        var packet = new KernxPacket(nextId(), source, actor.clock().now(),
+                ByteBuffer.wrap(message.getBytes(StandardCharsets.UTF_8)), meta);
+        // Sent while handling a traced packet: this hop gets its own row under the same trace
+        String trace = Tracer.INSTANCE.current();
+        if (trace != null) packet = packet.withMeta(Tracer.TRACE_KEY, trace + "/" + actor.id());
+        long enqueuedAt = Tracer.INSTANCE.stamp(packet);
+        if (!actor.offer(packet)) return false;
+        Tracer.INSTANCE.mark(packet, TraceStage.ENQUEUED, enqueuedAt);
+        return true;
+    }
+
+    boolean alive() {
+        return actor.running();
+    }
+
+    // Why send() just returned false
+    KernxRejection refusal() {
+        return alive() ? KernxRejection.ACTOR_OVERLOADED : KernxRejection.AGENT_GONE;
+    }
+
+    static String nextId() {
+        return "local-" + sequence.incrementAndGet();
+    }
+
+    static void completeExternal(String corr, String answer) {
+        CompletableFuture<String> reply = externalAsks.get(corr);
+        if (reply != null) reply.completeAsync(() -> answer, CALLBACKS);
+    }
+
+    static void failExternal(String corr, Throwable failure) {
+        CompletableFuture<String> reply = externalAsks.get(corr);
+        if (reply != null) CALLBACKS.execute(() -> reply.completeExceptionally(failure));
+    }
+
+    // What an asker sees when the target's behavior threw
+    static IllegalStateException failure(String agentId, String detail, Throwable cause) {
+        return new IllegalStateException("AGENT_FAILED " + agentId + ": " + detail, cause);
+    }
+}
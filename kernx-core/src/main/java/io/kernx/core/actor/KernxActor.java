@@ -4,17 +4,31 @@
  */
 package io.kernx.core.actor;
 
+import io.kernx.core.KernxRejection;
+import io.kernx.core.protocol.KernxClock;
 import io.kernx.core.protocol.KernxPacket;
+import io.kernx.core.quota.QuotaTable;
+import io.kernx.core.state.AgentRegistry;
 import io.kernx.core.state.ResultStore;
+import io.kernx.core.trace.TraceStage;
+import io.kernx.core.trace.Tracer;
 import org.jctools.queues.MpscArrayQueue;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.LockSupport; // IMPORT THIS
 
-public class KernxActor {
+public final class KernxActor {
 
     private final String id;
+    private final KernxClock clock;
+    private final QuotaTable quotas;
+    private final ActorBehavior behavior;
+    private final ActorContext context;
+    private final ActorRef ref;
     private final Queue<KernxPacket> mailbox; 
     private final io.kernx.core.ai.AiProvider brain = new io.kernx.core.ai.AiProvider();
     
@@ -24,7 +38,17 @@ public class KernxActor {
     private volatile boolean running = true;
 
     public KernxActor(String id, int queueDepth) {
+        this(id, queueDepth, KernxClock.system(), new QuotaTable(), ActorBehavior.ACKNOWLEDGE, null);
+    }
+
+    public KernxActor(String id, int queueDepth, KernxClock clock, QuotaTable quotas,
+                      ActorBehavior behavior, AgentRegistry registry) {
         this.id = id;
+        this.clock = clock;
+        this.quotas = quotas;
+        this.behavior = behavior;
+        this.context = new ActorContext(this, registry);
+        this.ref = new ActorRef(this);
         this.mailbox = new MpscArrayQueue<>(queueDepth); 
         start();
     }
@@ -34,21 +58,91 @@ public class KernxActor {
             while (running) {
                 KernxPacket packet = mailbox.poll();
                 if (packet != null) {
-                    process(packet);
+                    Tracer.INSTANCE.mark(packet, TraceStage.DEQUEUED);
+                    quotas.release(packet);
+                    try {
+                        process(packet);
+                    } catch (RuntimeException e) {
+                        // A faulty behavior costs one message, never the actor
+                        fail(packet, e);
+                    }
                 } else {
                     // FIX: Micro-Sleep (10 microseconds)
                     // Gives the Dispatcher time to fill the queue, but wakes up fast.
                     LockSupport.parkNanos(10_000); 
                 }
             }
+
+            // Killed: nothing left in the mailbox will run, so free its slots and answer whoever waits
+            KernxPacket orphan;
+            while ((orphan = mailbox.poll()) != null) {
+                quotas.release(orphan);
+                abandon(orphan);
+            }
+            context.abandonAsks();
         });
     }
 
     public boolean offer(KernxPacket packet) {
-        return mailbox.offer(packet);
+        return running && mailbox.offer(packet);
+    }
+
+    public int pending() {
+        return mailbox.size();
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public ActorRef ref() {
+        return ref;
+    }
+
+    KernxClock clock() {
+        return clock;
+    }
+
+    io.kernx.core.ai.AiProvider brain() {
+        return brain;
+    }
+
+    boolean running() {
+        return running;
     }
 
     private void process(KernxPacket packet) {
+        // Sends made while handling a traced packet carry its trace on to the next hop
+        boolean traced = Tracer.INSTANCE.enter(packet);
+        try {
+            handle(packet);
+        } finally {
+            if (traced) Tracer.INSTANCE.exit();
+        }
+    }
+
+    private void handle(KernxPacket packet) {
+        Map<String, String> meta = packet.meta();
+
+        // A reply to one of our own asks: complete it here, on our thread
+        if (!meta.isEmpty()) {
+            String replyFor = meta.get(ActorRef.REPLY);
+            if (replyFor != null) {
+                String body = new String(packet.payload().array(), StandardCharsets.UTF_8);
+                String error = meta.get(ActorRef.REPLY_ERROR);
+                if (ActorRef.TIMED_OUT.equals(error)) {
+                    context.failAsk(replyFor, new TimeoutException("ask " + replyFor + " timed out"));
+                } else if (ActorRef.GONE.equals(error)) {
+                    context.failAsk(replyFor, KernxRejection.AGENT_GONE);
+                } else if (error != null) {
+                    context.failAsk(replyFor, ActorRef.failure(packet.source(), body, null));
+                } else {
+                    context.completeAsk(replyFor, body);
+                }
+                return;
+            }
+        }
+
         String msg = new String(packet.payload().array());
         
         if (memory.size() > MEMORY_LIMIT) {
@@ -57,8 +151,44 @@ public class KernxActor {
         memory.add("User: " + msg);
         
         // No logs. Pure speed.
-        String response = "Processed-" + System.nanoTime(); 
-        ResultStore.INSTANCE.put(packet.id(), response);
+        String response = behavior.receive(context, packet);
+        Tracer.INSTANCE.mark(packet, TraceStage.PROCESSED);
+        if (response == null) return;
+
+        String corr = meta.isEmpty() ? null : meta.get(ActorRef.CORRELATION);
+        if (corr != null) {
+            context.reply(meta.get(ActorRef.REPLY_TO), corr, response);
+        } else {
+            ResultStore.INSTANCE.put(id, packet.id(), response);
+            Tracer.INSTANCE.mark(packet, TraceStage.RESULT_STORED);
+        }
+    }
+
+    // Whoever was waiting on this packet hears about the failure instead of timing out
+    private void fail(KernxPacket packet, RuntimeException e) {
+        Map<String, String> meta = packet.meta();
+        if (!meta.isEmpty()) {
+            if (meta.containsKey(ActorRef.REPLY)) return; // Failure came from a reply callback; nobody else waits
+            String corr = meta.get(ActorRef.CORRELATION);
+            if (corr != null) {
+                context.fail(meta.get(ActorRef.REPLY_TO), corr, e);
+                return;
+            }
+        }
+        ResultStore.INSTANCE.put(id, packet.id(), "{\"error\": \"AGENT_FAILED\"}");
+    }
+
+    private void abandon(KernxPacket packet) {
+        Map<String, String> meta = packet.meta();
+        if (!meta.isEmpty()) {
+            if (meta.containsKey(ActorRef.REPLY)) return; // Our own asks are failed wholesale
+            String corr = meta.get(ActorRef.CORRELATION);
+            if (corr != null) {
+                context.abandon(meta.get(ActorRef.REPLY_TO), corr);
+                return;
+            }
+        }
+        ResultStore.INSTANCE.put(id, packet.id(), "{\"error\": \"AGENT_GONE\"}");
     }
 
     public void kill() {
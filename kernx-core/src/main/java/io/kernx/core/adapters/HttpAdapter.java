@@ -4,18 +4,46 @@
 package io.kernx.core.adapters;
 
 import io.kernx.core.KernxDispatcher;
+import io.kernx.core.KernxRejection;
+import io.kernx.core.protocol.KernxPacket;
+import io.kernx.core.replay.PacketRecorder;
+import io.kernx.core.trace.Tracer;
+import io.kernx.core.state.ResultEvent;
+import io.kernx.core.state.ResultStore;
+import io.kernx.core.state.ResultSubscription;
 import com.sun.net.httpserver.HttpServer;
 import com.sun.net.httpserver.HttpExchange;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class HttpAdapter {
     private static final AtomicLong requestCounter = new AtomicLong(0);
     private static final long startTime = System.currentTimeMillis();
+    private static final int DEFAULT_STREAM_BUFFER = 256;
+    // Unauthenticated callers choose the buffer; keep it a power of two so this is the real bound
+    private static final int MAX_STREAM_BUFFER = 4096;
+    private static final long KEEPALIVE_NANOS = TimeUnit.SECONDS.toNanos(15);
+
+    private final PacketRecorder recorder;
+    private final boolean trustSourceHeader = Boolean.getBoolean("kernx.http.trust-source-header");
+
+    public HttpAdapter() {
+        this(null);
+    }
+
+    // Recording Mode: every ingested packet is also written to the flight recorder
+    public HttpAdapter(PacketRecorder recorder) {
+        this.recorder = recorder;
+    }
 
     public void start(KernxDispatcher dispatcher) {
         try {
@@ -27,7 +55,27 @@ public class HttpAdapter {
             // Endpoint 1: Ingestion
             server.createContext("/api/kernel", exchange -> {
                 requestCounter.incrementAndGet();
-                send(exchange, 202, "{\"status\": \"ACCEPTED\"}");
+                byte[] body;
+                try (var in = exchange.getRequestBody()) {
+                    body = in.readAllBytes();
+                }
+                var packet = KernxPacket.create(sourceOf(exchange), body);
+                if (recorder != null) recorder.record(packet);
+                packet = Tracer.INSTANCE.sample(packet);
+
+                try {
+                    dispatcher.dispatch(packet);
+                } catch (KernxRejection | IllegalStateException e) {
+                    send(exchange, 429, "{\"status\": \"REJECTED\", \"id\": \"" + packet.id() + "\"}");
+                    return;
+                } catch (SecurityException e) {
+                    send(exchange, 403, "{\"status\": \"BLOCKED\", \"id\": \"" + packet.id() + "\"}");
+                    return;
+                } catch (RuntimeException e) {
+                    send(exchange, 400, "{\"status\": \"MALFORMED\", \"id\": \"" + packet.id() + "\"}");
+                    return;
+                }
+                send(exchange, 202, "{\"status\": \"ACCEPTED\", \"id\": \"" + packet.id() + "\"}");
             });
             
             // Endpoint 2: Stats
@@ -47,6 +95,21 @@ public class HttpAdapter {
                 send(exchange, 200, json);
             });
 
+            // Endpoint 3: Result Retrieval (one-shot)
+            server.createContext("/api/result", exchange -> {
+                String id = query(exchange).get("id");
+                if (id == null) {
+                    send(exchange, 400, "{\"error\": \"MISSING_ID\"}");
+                    return;
+                }
+                send(exchange, 200, ResultStore.INSTANCE.get(id));
+            });
+
+            // Endpoint 4: Result Streaming (Server-Sent Events)
+            // /api/stream?agent=<id>  or  /api/stream?request=<id>   [&buffer=N&policy=drop|disconnect]
+            // buffer is clamped to 2..4096 and rounded up to a power of two
+            server.createContext("/api/stream", this::stream);
+
             server.start();
             System.out.println("[INFO] 🌍 HTTP Adapter listening on http://127.0.0.1:8080/api/kernel");
             
@@ -55,6 +118,99 @@ public class HttpAdapter {
         }
     }
 
+    // Holds the exchange open and pushes frames as actors produce them.
+    // Actors only ever touch the subscription's bounded buffer, never this socket.
+    private void stream(HttpExchange exchange) throws IOException {
+        Map<String, String> q = query(exchange);
+        String agent = q.get("agent");
+        String request = q.get("request");
+        if (agent == null && request == null) {
+            send(exchange, 400, "{\"error\": \"MISSING_AGENT_OR_REQUEST\"}");
+            return;
+        }
+        int capacity;
+        try {
+            int requested = Integer.parseInt(q.getOrDefault("buffer", String.valueOf(DEFAULT_STREAM_BUFFER)));
+            capacity = Math.min(MAX_STREAM_BUFFER, Math.max(2, requested));
+        } catch (NumberFormatException e) {
+            send(exchange, 400, "{\"error\": \"INVALID_BUFFER\"}");
+            return;
+        }
+        var policy = "disconnect".equalsIgnoreCase(q.get("policy"))
+                ? ResultSubscription.SlowConsumerPolicy.DISCONNECT
+                : ResultSubscription.SlowConsumerPolicy.DROP;
+
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0); // 0 = chunked
+
+        try (ResultSubscription sub = request != null
+                ? ResultStore.INSTANCE.subscribeRequest(request, capacity, policy)
+                : ResultStore.INSTANCE.subscribeAgent(agent, capacity, policy);
+             OutputStream os = exchange.getResponseBody()) {
+
+            while (true) {
+                ResultEvent event = sub.poll(KEEPALIVE_NANOS);
+                long dropped = sub.takeDropped();
+                if (dropped > 0 && !sub.overflowed()) {
+                    os.write(("event: dropped\ndata: " + dropped + "\n\n").getBytes(StandardCharsets.UTF_8));
+                }
+                if (event != null) {
+                    os.write(frame(event));
+                    os.flush();
+                    // A request has exactly one final answer; an agent stream runs until the client leaves
+                    if (request != null && event.last()) return;
+                } else if (sub.isClosed()) {
+                    if (sub.overflowed()) os.write("event: overflow\ndata: SLOW_CONSUMER\n\n".getBytes(StandardCharsets.UTF_8));
+                    return;
+                } else if (request != null && !"PENDING".equals(ResultStore.INSTANCE.get(request))) {
+                    // Final frame was dropped on a full buffer; the store still has it
+                    os.write(frame(new ResultEvent(null, request, ResultStore.INSTANCE.get(request), true)));
+                    return;
+                } else {
+                    os.write(": keepalive\n\n".getBytes(StandardCharsets.UTF_8));
+                    os.flush();
+                }
+            }
+        } catch (IOException clientGone) {
+            // Client disconnected; closing the subscription is all the cleanup needed
+        }
+    }
+
+    private byte[] frame(ResultEvent event) {
+        StringBuilder sb = new StringBuilder(64 + event.data().length());
+        sb.append("event: ").append(event.last() ? "result" : "partial").append('\n');
+        sb.append("id: ").append(event.requestId()).append('\n');
+        for (String line : event.data().split("\n", -1)) {
+            sb.append("data: ").append(line).append('\n');
+        }
+        return sb.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) return params;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                       URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    // Tenant identity for quotas is the caller's address. The X-Kernx-Source header is
+    // client-controlled, so it is only honoured behind a trusted proxy that sets it
+    // (-Dkernx.http.trust-source-header=true).
+    private String sourceOf(HttpExchange exchange) {
+        if (trustSourceHeader) {
+            String tenant = exchange.getRequestHeaders().getFirst("X-Kernx-Source");
+            if (tenant != null) return tenant;
+        }
+        return exchange.getRemoteAddress().getAddress().getHostAddress();
+    }
+
     private void send(HttpExchange exchange, int code, String body) throws IOException {
         byte[] bytes = body.getBytes();
         exchange.sendResponseHeaders(code, bytes.length);
@@ -6,6 +6,8 @@ package io.kernx.core.adapters;
 
 import io.kernx.core.KernxDispatcher;
 import io.kernx.core.protocol.KernxPacket;
+import io.kernx.core.replay.PacketRecorder;
+import io.kernx.core.trace.Tracer;
 import io.kernx.core.spi.KernxAdapter;
 import java.nio.charset.StandardCharsets;
 import java.util.Scanner;
@@ -17,6 +19,15 @@ import java.util.Scanner;
 public final class StdInAdapter implements KernxAdapter {
 
     private volatile boolean running = true;
+    private final PacketRecorder recorder;
+
+    public StdInAdapter() {
+        this(null);
+    }
+
+    public StdInAdapter(PacketRecorder recorder) {
+        this.recorder = recorder;
+    }
 
     @Override
     public void start(KernxDispatcher dispatcher) {
@@ -33,6 +44,8 @@ public final class StdInAdapter implements KernxAdapter {
                     
                     // 1. Convert "Keyboard Event" -> "Universal Packet"
                     var packet = KernxPacket.create("User-Console", line.getBytes(StandardCharsets.UTF_8));
+                    if (recorder != null) recorder.record(packet);
+                    packet = Tracer.INSTANCE.sample(packet);
                     
                     // 2. Inject into Kernel
                     dispatcher.dispatch(packet);
@@ -4,8 +4,11 @@
  */
 package io.kernx.core.ai;
 
+import io.kernx.core.trace.TraceStage;
+import io.kernx.core.trace.Tracer;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * The Interface for Intelligence.
@@ -15,6 +18,16 @@ public class AiProvider {
 
     // Simulates an LLM call (e.g., GPT-4)
     public CompletableFuture<String> prompt(String input) {
+        // Attribute the call to the packet being processed, if it is sampled
+        String trace = Tracer.INSTANCE.current();
+        if (trace != null) {
+            Tracer.INSTANCE.mark(trace, TraceStage.AI_START);
+            return call(input).whenComplete((r, e) -> Tracer.INSTANCE.mark(trace, TraceStage.AI_END));
+        }
+        return call(input);
+    }
+
+    private CompletableFuture<String> call(String input) {
         return CompletableFuture.supplyAsync(() -> {
             try {
                 // Simulate "Thinking" (Network Latency + GPU Inference)
@@ -25,4 +38,14 @@ public class AiProvider {
             return "AI Analysis of [" + input + "]: Verified. Sentiment: Positive. Action: Approved.";
         });
     }
+
+    // Simulates a token-streamed LLM call: each token is handed to onToken as it "arrives"
+    public CompletableFuture<String> stream(String input, Consumer<String> onToken) {
+        return prompt(input).thenApply(answer -> {
+            for (String token : answer.split("(?<= )")) {
+                onToken.accept(token);
+            }
+            return answer;
+        });
+    }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2026 Kernx. All rights reserved.
+ * Licensed under the Business Source License 1.1.
+ */
+package io.kernx.core.protocol;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Where Packet IDs come from.
+ * Production uses random UUIDs; replays use a sequence so results line up run after run.
+ */
+@FunctionalInterface
+public interface IdSource {
+
+    String nextId();
+
+    static IdSource random() {
+        return () -> UUID.randomUUID().toString();
+    }
+
+    static IdSource sequential(String prefix) {
+        AtomicLong counter = new AtomicLong(0);
+        return () -> prefix + counter.incrementAndGet();
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2026 Kernx. All rights reserved.
+ * Licensed under the Business Source License 1.1.
+ */
+package io.kernx.core.protocol;
+
+import java.time.Instant;
+
+/**
+ * The Kernel's Sense of Time.
+ * Everything that stamps or measures a packet asks this instead of the JVM,
+ * so a recorded session can be replayed against a controlled clock.
+ */
+public interface KernxClock {
+
+    /** Wall-clock time used to stamp packets. */
+    Instant now();
+
+    /** Monotonic nanoseconds used for pacing and latency measurement. */
+    long nanoTime();
+
+    static KernxClock system() {
+        return SystemClock.INSTANCE;
+    }
+
+    enum SystemClock implements KernxClock {
+        INSTANCE;
+
+        @Override
+        public Instant now() {
+            return Instant.now();
+        }
+
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    }
+}
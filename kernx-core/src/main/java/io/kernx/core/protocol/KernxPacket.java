@@ -8,8 +8,8 @@ package io.kernx.core.protocol;
 
 import java.nio.ByteBuffer;
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * The Universal Data Envelope.
@@ -24,10 +24,28 @@ public record KernxPacket(
 ) {
     // Compact Constructor for "Hot Path" creation
     public static KernxPacket create(String source, byte[] data) {
+        return create(source, data, KernxClock.system(), IdSource.random());
+    }
+
+    // Copy with one extra meta entry; the payload buffer is shared, not copied
+    public KernxPacket withMeta(String key, String value) {
+        Map<String, String> merged;
+        if (meta.isEmpty()) {
+            merged = Map.of(key, value);
+        } else {
+            var copy = new HashMap<>(meta);
+            copy.put(key, value);
+            merged = Map.copyOf(copy);
+        }
+        return new KernxPacket(id, source, timestamp, payload, merged);
+    }
+
+    // Deterministic creation (Replay, Tests): caller owns time and identity
+    public static KernxPacket create(String source, byte[] data, KernxClock clock, IdSource ids) {
         return new KernxPacket(
-            UUID.randomUUID().toString(),
+            ids.nextId(),
             source,
-            Instant.now(),
+            clock.now(),
             ByteBuffer.wrap(data), // Zero-Copy wrap
             Map.of()
         );
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026 Kernx. All rights reserved.
+ * Licensed under the Business Source License 1.1.
+ */
+package io.kernx.core.quota;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One Tenant's Allowance.
+ * A token bucket (kept as a single "theoretical arrival time", GCRA style, so a check is
+ * one CAS) plus an in-flight counter. Limits can be swapped at runtime without losing state.
+ */
+public final class Quota {
+
+    /** Immutable limit set; swapped atomically by the control plane. 0 means "no limit". */
+    record Limits(long intervalNanos, long toleranceNanos, int maxInFlight) {
+        static Limits of(long ratePerSecond, long burst, int maxInFlight) {
+            if (ratePerSecond <= 0) return new Limits(0, 0, maxInFlight);
+            long interval = Math.max(1, 1_000_000_000L / ratePerSecond);
+            return new Limits(interval, Math.max(0, burst - 1) * interval, maxInFlight);
+        }
+    }
+
+    private static final VarHandle TAT;
+    static {
+        try {
+            TAT = MethodHandles.lookup().findVarHandle(Quota.class, "tat", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final AtomicLong generations = new AtomicLong(0);
+
+    private final String key;
+    private final String slotTag; // Unique per instance, so a slot never releases into a replacement
+    private volatile Limits limits;
+    private volatile boolean inherited; // Created from the table's default, not configured by name
+    @SuppressWarnings("unused") // Accessed via TAT
+    private volatile long tat = Long.MIN_VALUE;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private final AtomicLong rejected = new AtomicLong(0);
+
+    Quota(String key, Limits limits, boolean inherited) {
+        this.key = key;
+        this.slotTag = key + "#" + generations.incrementAndGet();
+        this.limits = limits;
+        this.inherited = inherited;
+    }
+
+    /** The table key this quota is filed under. */
+    public String key() {
+        return key;
+    }
+
+    String slotTag() {
+        return slotTag;
+    }
+
+    void update(Limits limits) {
+        this.limits = limits;
+    }
+
+    void configure(Limits limits, boolean inherited) {
+        this.limits = limits;
+        this.inherited = inherited;
+    }
+
+    boolean inherited() {
+        return inherited;
+    }
+
+    // Nothing queued and the bucket is full again: a fresh Quota would behave identically
+    boolean idle(long nowNanos) {
+        return inFlight.get() == 0 && (long) TAT.getVolatile(this) <= nowNanos;
+    }
+
+    /** Takes one token if the bucket has one. */
+    public boolean tryRate(long nowNanos) {
+        Limits l = limits;
+        if (l.intervalNanos == 0) return true;
+        while (true) {
+            long current = (long) TAT.getVolatile(this);
+            long base = Math.max(current, nowNanos);
+            if (base - nowNanos > l.toleranceNanos) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (TAT.compareAndSet(this, current, base + l.intervalNanos)) return true;
+        }
+    }
+
+    /** Reserves an in-flight slot; pair with {@link #release()}. */
+    public boolean tryAcquire() {
+        int max = limits.maxInFlight;
+        if (inFlight.incrementAndGet() > max && max > 0) {
+            inFlight.decrementAndGet();
+            rejected.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /** Checks a caller-supplied depth (e.g. an agent's mailbox) against the in-flight cap. */
+    public boolean admitsDepth(int depth) {
+        int max = limits.maxInFlight;
+        if (max > 0 && depth >= max) {
+            rejected.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+}
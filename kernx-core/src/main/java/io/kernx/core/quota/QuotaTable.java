@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026 Kernx. All rights reserved.
+ * Licensed under the Business Source License 1.1.
+ */
+package io.kernx.core.quota;
+
+import io.kernx.core.protocol.KernxPacket;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The Tenant Ledger.
+ * Per-source and per-agent quotas, looked up lock-free on the dispatch hot path.
+ * While no quota has ever been set, {@link #active()} is false and the dispatcher skips the lookup entirely.
+ */
+public class QuotaTable {
+
+    /** Source key for the default quota every unnamed tenant gets ("QUOTA SOURCE * ..."). */
+    public static final String DEFAULT_SOURCE = "*";
+
+    // Past this many tracked tenants, idle default-sized buckets are evicted to make room;
+    // newcomers only share one bucket while every tracked tenant is busy
+    private static final int MAX_TRACKED_SOURCES = 65_536;
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    /** Meta key marking a packet that holds an in-flight slot; the value is the quota's key. */
+    public static final String SLOT_KEY = "kernx.quota";
+
+    private final Map<String, Quota> sources = new ConcurrentHashMap<>();
+    private final Map<String, Quota> agents = new ConcurrentHashMap<>();
+    private final Map<String, Quota> slots = new ConcurrentHashMap<>(); // slot tag -> the exact Quota that issued it
+    private volatile boolean active = false;
+    private volatile Quota.Limits defaultLimits; // null = unknown sources are unlimited
+    private final Quota overflow = new Quota(DEFAULT_SOURCE, Quota.Limits.of(0, 0, 0), true);
+    private long nextSweepNanos = Long.MIN_VALUE; // Guarded by this
+
+    public QuotaTable() {
+        track(overflow);
+    }
+
+    public boolean active() {
+        return active;
+    }
+
+    /** The quota currently tracked for a tenant, or null; never creates one. */
+    public Quota source(String source) {
+        return sources.get(source);
+    }
+
+    /**
+     * The quota for a tenant. Unknown tenants get their own bucket sized by the default quota,
+     * so rotating the source name buys nothing beyond the default allowance.
+     */
+    public Quota source(String source, long nowNanos) {
+        Quota quota = sources.get(source);
+        if (quota != null || defaultLimits == null) return quota;
+        if (sources.size() >= MAX_TRACKED_SOURCES && !evictIdle(nowNanos)) return overflow;
+        return sources.computeIfAbsent(source, k -> track(new Quota(k, currentDefault(), true)));
+    }
+
+    public Quota agent(String agentId) {
+        return agents.get(agentId);
+    }
+
+    public void limitSource(String source, long ratePerSecond, long burst, int maxInFlight) {
+        Quota.Limits limits = Quota.Limits.of(ratePerSecond, burst, maxInFlight);
+        if (DEFAULT_SOURCE.equals(source)) {
+            setDefault(limits);
+            return;
+        }
+        set(sources, source, limits);
+    }
+
+    public void limitAgent(String agentId, long ratePerSecond, long burst, int maxInFlight) {
+        set(agents, agentId, Quota.Limits.of(ratePerSecond, burst, maxInFlight));
+    }
+
+    // Lifting a limit keeps the entry so in-flight counts stay balanced for queued packets
+    public void unlimitSource(String source) {
+        if (DEFAULT_SOURCE.equals(source)) {
+            setDefault(null);
+            return;
+        }
+        Quota quota = sources.get(source);
+        if (quota != null) quota.update(Quota.Limits.of(0, 0, 0));
+    }
+
+    public void unlimitAgent(String agentId) {
+        Quota quota = agents.get(agentId);
+        if (quota != null) quota.update(Quota.Limits.of(0, 0, 0));
+    }
+
+    /** Tags a routed packet with the slot it acquired, so exactly that slot is released later. */
+    public KernxPacket holdSlot(KernxPacket routed, Quota quota) {
+        return routed.withMeta(SLOT_KEY, quota.slotTag());
+    }
+
+    /** Called by actors once a packet has left the mailbox; only slot holders give anything back. */
+    public void release(KernxPacket packet) {
+        Map<String, String> meta = packet.meta();
+        if (meta.isEmpty()) return;
+        String tag = meta.get(SLOT_KEY);
+        if (tag == null) return;
+        Quota quota = slots.get(tag);
+        if (quota != null) quota.release(); // null: evicted since, and its count died with it
+    }
+
+    private Quota track(Quota quota) {
+        slots.put(quota.slotTag(), quota);
+        return quota;
+    }
+
+    // Only inherited buckets go, and only idle ones, so no tenant loses anything it had
+    private synchronized boolean evictIdle(long nowNanos) {
+        if (sources.size() < MAX_TRACKED_SOURCES) return true; // Another thread just swept
+        if (nowNanos < nextSweepNanos) return false; // Full of busy tenants; don't rescan per packet
+        nextSweepNanos = nowNanos + SWEEP_INTERVAL_NANOS;
+        for (Quota quota : sources.values()) {
+            if (quota.inherited() && quota.idle(nowNanos) && sources.remove(quota.key(), quota)) {
+                slots.remove(quota.slotTag());
+            }
+        }
+        return sources.size() < MAX_TRACKED_SOURCES;
+    }
+
+    private void set(Map<String, Quota> table, String key, Quota.Limits limits) {
+        table.compute(key, (k, existing) -> {
+            if (existing == null) return track(new Quota(k, limits, false));
+            existing.configure(limits, false);
+            return existing;
+        });
+        active = true;
+    }
+
+    // Re-sizes every tenant still riding on the default; named quotas are left alone
+    private synchronized void setDefault(Quota.Limits limits) {
+        defaultLimits = limits;
+        Quota.Limits effective = currentDefault();
+        overflow.update(effective);
+        for (Quota quota : sources.values()) {
+            if (quota.inherited()) quota.update(effective);
+        }
+        if (limits != null) active = true;
+    }
+
+    private Quota.Limits currentDefault() {
+        Quota.Limits limits = defaultLimits;
+        return limits != null ? limits : Quota.Limits.of(0, 0, 0);
+    }
+}
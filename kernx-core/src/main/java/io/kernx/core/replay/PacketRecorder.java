@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026 Kernx. All rights reserved.
+ * Licensed under the Business Source License 1.1.
+ */
+package io.kernx.core.replay;
+
+import io.kernx.core.protocol.KernxClock;
+import io.kernx.core.protocol.KernxPacket;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The Flight Recorder.
+ * Adapters hand every inbound packet to this before dispatching it, so a production
+ * session can be fed back through the Kernel later with {@link PacketReplayer}.
+ * Only what arrived from outside is captured; IDs and timestamps are regenerated on replay.
+ *
+ * The buffer is flushed at least every {@code FLUSH_INTERVAL_NANOS} of traffic, so a crash
+ * costs a fraction of a second of recording. An I/O error stops the recorder (logged once);
+ * it never reaches the adapter thread that is ingesting the packet.
+ */
+public final class PacketRecorder implements AutoCloseable {
+
+    private static final System.Logger logger = System.getLogger("PacketRecorder");
+    private static final long FLUSH_INTERVAL_NANOS = 100_000_000L;
+
+    private final DataOutputStream out;
+    private final KernxClock clock;
+    private final Map<String, Integer> sources = new HashMap<>();
+    private long lastNanos;
+    private long lastFlushNanos;
+    private long recorded;
+    private boolean failed;
+
+    public PacketRecorder(Path file) throws IOException {
+        this(file, KernxClock.system());
+    }
+
+    public PacketRecorder(Path file, KernxClock clock) throws IOException {
+        this(Files.newOutputStream(file), clock);
+    }
+
+    public PacketRecorder(OutputStream sink, KernxClock clock) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(sink, 64 * 1024));
+        this.clock = clock;
+        out.writeInt(RecordingFormat.MAGIC);
+        out.writeByte(RecordingFormat.VERSION);
+        this.lastNanos = clock.nanoTime();
+        this.lastFlushNanos = lastNanos;
+    }
+
+    // Called from many adapter threads; the lock keeps deltas monotonic in file order
+    public synchronized void record(KernxPacket packet) {
+        if (failed) return;
+        try {
+            long now = clock.nanoTime();
+            RecordingFormat.writeVarLong(out, Math.max(0, now - lastNanos));
+            lastNanos = now;
+
+            Integer ref = sources.get(packet.source());
+            if (ref != null) {
+                RecordingFormat.writeVarLong(out, ref);
+            } else {
+                int next = sources.size();
+                sources.put(packet.source(), next);
+                RecordingFormat.writeVarLong(out, next);
+                out.writeUTF(packet.source());
+            }
+
+            ByteBuffer payload = packet.payload();
+            RecordingFormat.writeVarLong(out, payload.remaining());
+            out.write(payload.array(), payload.arrayOffset() + payload.position(), payload.remaining());
+
+            RecordingFormat.writeVarLong(out, packet.meta().size());
+            for (var entry : packet.meta().entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue());
+            }
+            recorded++;
+
+            if (now - lastFlushNanos >= FLUSH_INTERVAL_NANOS) {
+                out.flush();
+                lastFlushNanos = now;
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    public synchronized long recorded() {
+        return recorded;
+    }
+
+    /** False once an I/O error has stopped the recording. */
+    public synchronized boolean active() {
+        return !failed;
+    }
+
+    public synchronized void flush() {
+        if (failed) return;
+        try {
+            out.flush();
+            lastFlushNanos = clock.nanoTime();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (failed) return;
+        out.close();
+    }
+
+    // Losing the recording is bad; losing ingestion because of it is worse
+    private void fail(IOException e) {
+        failed = true;
+        logger.log(System.Logger.Level.WARNING, "Recording stopped after " + recorded + " packets", e);
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // Already failing; the first error is the one worth reporting
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026 Kernx. All rights reserved.
+ * Licensed under the Business Source License 1.1.
+ */
+package io.kernx.core.replay;
+
+import io.kernx.core.KernxDispatcher;
+import io.kernx.core.KernxRejection;
+import io.kernx.core.protocol.IdSource;
+import io.kernx.core.protocol.KernxClock;
+import io.kernx.core.protocol.KernxPacket;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The Replay Engine.
+ * Reads a recording made by {@link PacketRecorder} and pushes it through a dispatcher,
+ * either at the original pace, N times faster, or as fast as the Kernel will take it.
+ */
+public final class PacketReplayer {
+
+    public static final double ORIGINAL_SPEED = 1.0;
+    public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+
+    private final KernxClock clock;
+    private final IdSource ids;
+    private final double speed;
+
+    public PacketReplayer(double speed) {
+        this(KernxClock.system(), IdSource.sequential("replay-"), speed);
+    }
+
+    public PacketReplayer(KernxClock clock, IdSource ids, double speed) {
+        if (!(speed > 0)) throw new IllegalArgumentException("speed must be > 0");
+        this.clock = clock;
+        this.ids = ids;
+        this.speed = speed;
+    }
+
+    public ReplayReport replay(Path recording, KernxDispatcher dispatcher) throws IOException {
+        long dispatched = 0, rejected = 0, blocked = 0, malformed = 0;
+        long start = clock.nanoTime();
+        long offset = 0;
+        List<String> sources = new ArrayList<>();
+
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(recording), 64 * 1024))) {
+            if (in.readInt() != RecordingFormat.MAGIC) throw new IOException("NOT_A_KERNX_RECORDING");
+            byte version = in.readByte();
+            if (version != RecordingFormat.VERSION) throw new IOException("UNSUPPORTED_RECORDING_VERSION: " + version);
+
+            while (true) {
+                long delta;
+                try {
+                    delta = RecordingFormat.readVarLong(in);
+                } catch (EOFException end) {
+                    break;
+                }
+                offset += delta;
+
+                String source;
+                byte[] payload;
+                Map<String, String> meta = Map.of();
+                try {
+                    int ref = (int) RecordingFormat.readVarLong(in);
+                    if (ref == sources.size()) sources.add(in.readUTF());
+                    source = sources.get(ref);
+
+                    payload = new byte[(int) RecordingFormat.readVarLong(in)];
+                    in.readFully(payload);
+
+                    int metaCount = (int) RecordingFormat.readVarLong(in);
+                    if (metaCount > 0) {
+                        meta = new HashMap<>();
+                        for (int i = 0; i < metaCount; i++) meta.put(in.readUTF(), in.readUTF());
+                    }
+                } catch (EOFException torn) {
+                    break; // Recorder died mid-record (crash, full disk): replay what made it to disk
+                }
+
+                pace(start, offset);
+
+                var packet = new KernxPacket(ids.nextId(), source, clock.now(), ByteBuffer.wrap(payload), meta);
+                try {
+                    dispatcher.dispatch(packet);
+                    dispatched++;
+                } catch (KernxRejection | IllegalStateException e) {
+                    rejected++; // Quotas and backpressure, same as live traffic
+                } catch (SecurityException e) {
+                    blocked++;
+                } catch (RuntimeException e) {
+                    malformed++; // Live traffic the HttpAdapter answered with 400; keep going
+                }
+            }
+        }
+        return new ReplayReport(dispatched, rejected, blocked, malformed, clock.nanoTime() - start);
+    }
+
+    private void pace(long start, long offset) {
+        if (speed == MAX_SPEED) return;
+        long due = start + (long) (offset / speed);
+        long wait;
+        while ((wait = due - clock.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2026 Kernx. All rights reserved.
+ * Licensed under the Business Source License 1.1.
+ */
+package io.kernx.core.replay;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The On-Disk Layout of a Recording.
+ *
+ * <pre>
+ * header : int MAGIC, byte VERSION
+ * record : varlong deltaNanos   (since previous record)
+ *          varint  sourceRef    (== table size means "new source", followed by UTF name)
+ *          varint  payloadLength, bytes
+ *          varint  metaCount, (UTF key, UTF value) * metaCount
+ * </pre>
+ *
+ * A typical record costs a handful of bytes plus its payload.
+ */
+final class RecordingFormat {
+
+    static final int MAGIC = 0x4B524E58; // "KRNX"
+    static final byte VERSION = 1;
+
+    private RecordingFormat() {}
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("CORRUPT_RECORDING: varint too long");
+    }
+}
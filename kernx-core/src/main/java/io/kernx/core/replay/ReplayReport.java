@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2026 Kernx. All rights reserved.
+ * Licensed under the Business Source License 1.1.
+ */
+package io.kernx.core.replay;
+
+/**
+ * What happened when a recording was fed back through the Kernel.
+ */
+public record ReplayReport(
+    long dispatched,
+    long rejected,
+    long blocked,
+    long malformed,
+    long elapsedNanos
+) {
+    public double throughput() {
+        return elapsedNanos == 0 ? 0 : dispatched / (elapsedNanos / 1_000_000_000.0);
+    }
+}
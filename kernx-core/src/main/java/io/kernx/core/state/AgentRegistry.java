@@ -3,9 +3,16 @@
  */
 package io.kernx.core.state;
 
+import io.kernx.core.actor.ActorBehavior;
+import io.kernx.core.actor.ActorRef;
 import io.kernx.core.actor.KernxActor;
+import io.kernx.core.protocol.KernxClock;
+import io.kernx.core.quota.QuotaTable;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class AgentRegistry {
@@ -13,25 +20,91 @@ public class AgentRegistry {
     private final AtomicInteger globalQueueDepth = new AtomicInteger(100);
     private final Map<String, KernxActor> agents = new ConcurrentHashMap<>();
 
+    // Fan-out indexes: group -> members, member -> groups (for cleanup), and sorted ids for prefix routing
+    private final Map<String, Set<String>> groups = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> memberships = new ConcurrentHashMap<>();
+    private final NavigableSet<String> sortedIds = new ConcurrentSkipListSet<>();
+    private final KernxClock clock;
+    private final QuotaTable quotas;
+
+    public AgentRegistry() {
+        this(KernxClock.system(), new QuotaTable());
+    }
+
+    public AgentRegistry(KernxClock clock, QuotaTable quotas) {
+        this.clock = clock;
+        this.quotas = quotas;
+    }
+
     public void setGlobalQueueDepth(int depth) {
         this.globalQueueDepth.set(depth);
         System.out.println("[REGISTRY] ⚙️ System Policy Updated: Queue Depth = " + depth);
     }
 
     public void register(String agentId) {
+        register(agentId, ActorBehavior.ACKNOWLEDGE);
+    }
+
+    // In-kernel agents: the behavior decides what the agent does with each message
+    public ActorRef register(String agentId, ActorBehavior behavior) {
         int currentPolicy = globalQueueDepth.get();
-        agents.computeIfAbsent(agentId, id -> new KernxActor(id, currentPolicy));
+        return agents.computeIfAbsent(agentId, id -> {
+            sortedIds.add(id);
+            return new KernxActor(id, currentPolicy, clock, quotas, behavior, this);
+        }).ref();
+    }
+
+    public boolean join(String group, String agentId) {
+        if (!agents.containsKey(agentId)) return false;
+        groups.computeIfAbsent(group, g -> ConcurrentHashMap.newKeySet()).add(agentId);
+        memberships.computeIfAbsent(agentId, a -> ConcurrentHashMap.newKeySet()).add(group);
+        return true;
+    }
+
+    public void leave(String group, String agentId) {
+        groups.computeIfPresent(group, (g, members) -> {
+            members.remove(agentId);
+            return members.isEmpty() ? null : members;
+        });
+        memberships.computeIfPresent(agentId, (a, joined) -> {
+            joined.remove(group);
+            return joined.isEmpty() ? null : joined;
+        });
+    }
+
+    /**
+     * Resolves a broadcast target to a snapshot of agent ids.
+     * "name" is a group; "prefix*" matches every agent whose id starts with prefix ("*" is everyone).
+     */
+    public String[] resolve(String target) {
+        if (target.endsWith("*")) {
+            String prefix = target.substring(0, target.length() - 1);
+            if (prefix.isEmpty()) return sortedIds.toArray(String[]::new);
+            return sortedIds.subSet(prefix, true, prefix + Character.MAX_VALUE, false).toArray(String[]::new);
+        }
+        Set<String> members = groups.get(target);
+        return members == null ? new String[0] : members.toArray(String[]::new);
     }
 
     public KernxActor get(String agentId) {
         return agents.get(agentId);
     }
 
+    public ActorRef ref(String agentId) {
+        KernxActor actor = agents.get(agentId);
+        return actor == null ? null : actor.ref();
+    }
+
     public void remove(String agentId) {
         KernxActor actor = agents.remove(agentId);
         if (actor != null) {
             actor.kill();
         }
+        sortedIds.remove(agentId);
+        Set<String> joined = memberships.remove(agentId);
+        if (joined != null) {
+            for (String group : joined) leave(group, agentId);
+        }
     }
 
     // --- NEW METHOD (Fixes your Red Line) ---
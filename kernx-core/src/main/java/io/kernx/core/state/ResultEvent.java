@@ -0,0 +1,16 @@
+/*
+ * Copyright (c) 2026 Kernx. All rights reserved.
+ * Licensed under the Business Source License 1.1.
+ */
+package io.kernx.core.state;
+
+/**
+ * One Frame of Agent Output.
+ * Partial frames are streamed only; the final frame is also what {@link ResultStore#get} returns.
+ */
+public record ResultEvent(
+    String agentId,
+    String requestId,
+    String data,
+    boolean last
+) {}
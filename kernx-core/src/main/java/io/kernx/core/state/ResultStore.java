@@ -4,12 +4,16 @@
  */
 package io.kernx.core.state;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The "Post Office" for Async Results.
- * Agents drop answers here. Users pick them up via HTTP GET.
+ * Agents drop answers here. Users pick them up via HTTP GET,
+ * or subscribe to an agent / request and have every frame pushed to them.
  */
 public class ResultStore {
 
@@ -18,11 +22,76 @@ public class ResultStore {
 
     private final Map<String, String> results = new ConcurrentHashMap<>();
 
+    // Live listeners. The counter lets publishers skip both lookups when nobody is listening.
+    private final Map<String, List<ResultSubscription>> byAgent = new ConcurrentHashMap<>();
+    private final Map<String, List<ResultSubscription>> byRequest = new ConcurrentHashMap<>();
+    private final AtomicInteger listeners = new AtomicInteger(0);
+
     public void put(String requestId, String answer) {
+        put(null, requestId, answer);
+    }
+
+    // Final answer from an agent: stored, and pushed to anyone listening
+    public void put(String agentId, String requestId, String answer) {
         results.put(requestId, answer);
+        if (listeners.get() != 0) {
+            publish(new ResultEvent(agentId, requestId, answer, true));
+        }
+    }
+
+    // Partial output (e.g. streamed AI tokens): pushed only, never stored
+    public void emit(String agentId, String requestId, String chunk) {
+        if (listeners.get() != 0) {
+            publish(new ResultEvent(agentId, requestId, chunk, false));
+        }
     }
 
     public String get(String requestId) {
         return results.getOrDefault(requestId, "PENDING");
     }
-}
\ No newline at end of file
+
+    public ResultSubscription subscribeAgent(String agentId, int capacity, ResultSubscription.SlowConsumerPolicy policy) {
+        return subscribe(byAgent, agentId, capacity, policy, false);
+    }
+
+    // If the answer is already in, the subscription starts with it. A put() racing with this
+    // may deliver it too; the subscription keeps only the first final frame.
+    public ResultSubscription subscribeRequest(String requestId, int capacity, ResultSubscription.SlowConsumerPolicy policy) {
+        ResultSubscription sub = subscribe(byRequest, requestId, capacity, policy, true);
+        String done = results.get(requestId);
+        if (done != null) sub.deliver(new ResultEvent(null, requestId, done, true));
+        return sub;
+    }
+
+    private ResultSubscription subscribe(Map<String, List<ResultSubscription>> index, String key,
+                                         int capacity, ResultSubscription.SlowConsumerPolicy policy,
+                                         boolean singleRequest) {
+        ResultSubscription[] self = new ResultSubscription[1];
+        self[0] = new ResultSubscription(capacity, policy, singleRequest, () -> {
+            index.computeIfPresent(key, (k, subs) -> {
+                subs.remove(self[0]);
+                return subs.isEmpty() ? null : subs;
+            });
+            listeners.decrementAndGet();
+        });
+        listeners.incrementAndGet();
+        index.compute(key, (k, subs) -> {
+            if (subs == null) subs = new CopyOnWriteArrayList<>();
+            subs.add(self[0]);
+            return subs;
+        });
+        return self[0];
+    }
+
+    private void publish(ResultEvent event) {
+        if (event.agentId() != null) deliver(byAgent.get(event.agentId()), event);
+        deliver(byRequest.get(event.requestId()), event);
+    }
+
+    private void deliver(List<ResultSubscription> subs, ResultEvent event) {
+        if (subs == null) return;
+        for (ResultSubscription sub : subs) {
+            sub.deliver(event);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026 Kernx. All rights reserved.
+ * Licensed under the Business Source License 1.1.
+ */
+package io.kernx.core.state;
+
+import org.jctools.queues.MpscArrayQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A Listener's Mailbox.
+ * Actors publish into a bounded lock-free queue and never wait; when the listener falls
+ * behind, the {@link SlowConsumerPolicy} decides what gives.
+ */
+public final class ResultSubscription implements AutoCloseable {
+
+    public enum SlowConsumerPolicy {
+        /** Discard frames that do not fit; the listener is told how many it missed. */
+        DROP,
+        /** Cut the listener off the first time its buffer is full. */
+        DISCONNECT
+    }
+
+    private final MpscArrayQueue<ResultEvent> buffer;
+    private final SlowConsumerPolicy policy;
+    private final Runnable onClose;
+    private final AtomicLong dropped = new AtomicLong(0);
+    private volatile Thread waiter;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private volatile boolean overflowed = false;
+    // Request subscriptions end at one final frame, however many paths try to deliver it
+    private final AtomicBoolean finalDelivered;
+
+    // NOTE: JCTools rounds capacity up to the next power of two; that is the effective bound
+    ResultSubscription(int capacity, SlowConsumerPolicy policy, boolean singleRequest, Runnable onClose) {
+        this.buffer = new MpscArrayQueue<>(capacity);
+        this.policy = policy;
+        this.onClose = onClose;
+        this.finalDelivered = singleRequest ? new AtomicBoolean(false) : null;
+    }
+
+    // Publisher side (actor threads): never blocks
+    void deliver(ResultEvent event) {
+        if (closed.get()) return;
+        if (event.last() && finalDelivered != null && !finalDelivered.compareAndSet(false, true)) return;
+        if (!buffer.offer(event)) {
+            dropped.incrementAndGet();
+            if (policy == SlowConsumerPolicy.DISCONNECT) {
+                overflowed = true;
+                close();
+            }
+        }
+        Thread w = waiter;
+        if (w != null) LockSupport.unpark(w);
+    }
+
+    /**
+     * Waits up to {@code timeoutNanos} for the next frame.
+     * @return the frame, or null on timeout or once closed and drained.
+     */
+    public ResultEvent poll(long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (true) {
+            ResultEvent event = buffer.poll();
+            if (event != null) return event;
+            if (closed.get()) return null;
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return null;
+
+            waiter = Thread.currentThread();
+            if (buffer.isEmpty() && !closed.get()) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            waiter = null;
+        }
+    }
+
+    /** Frames lost to a full buffer since the last call. */
+    public long takeDropped() {
+        return dropped.getAndSet(0);
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    public boolean overflowed() {
+        return overflowed;
+    }
+
+    @Override
+    public void close() {
+        // An overflowing publisher and the listener's own thread can race here; only one may unregister
+        if (!closed.compareAndSet(false, true)) return;
+        onClose.run();
+        Thread w = waiter;
+        if (w != null) LockSupport.unpark(w);
+    }
+}
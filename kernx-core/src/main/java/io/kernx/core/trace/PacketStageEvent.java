@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2026 Kernx. All rights reserved.
+ * Licensed under the Business Source License 1.1.
+ */
+package io.kernx.core.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR View of a Sampled Packet.
+ * One instant event per checkpoint; group by traceId in JMC to follow a packet.
+ */
+@Name("io.kernx.PacketStage")
+@Label("Packet Stage")
+@Category("Kernx")
+@Description("A sampled packet reached a pipeline checkpoint")
+@StackTrace(false)
+final class PacketStageEvent extends Event {
+
+    @Label("Trace Id")
+    String traceId;
+
+    @Label("Stage")
+    String stage;
+}
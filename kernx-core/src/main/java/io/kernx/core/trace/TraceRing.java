@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2026 Kernx. All rights reserved.
+ * Licensed under the Business Source License 1.1.
+ */
+package io.kernx.core.trace;
+
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A Fixed-Size Flight Log.
+ * Writers claim a slot with one getAndIncrement and overwrite the oldest entry; nothing
+ * is ever allocated after construction. Each slot is published by storing its sequence
+ * number last, so a reader can tell a torn or overwritten slot and skip it. This is a
+ * sequence lock: the fences in write() and drainTo() are what make the check hold under
+ * the Java memory model, not the ordering of the source lines.
+ */
+final class TraceRing {
+
+    record Entry(String traceId, TraceStage stage, long nanos) {}
+
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong(0);
+    private final AtomicLongArray published;
+    private final String[] traceIds;
+    private final TraceStage[] stages;
+    private final long[] nanos;
+
+    TraceRing(int capacity) {
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        this.traceIds = new String[capacity];
+        this.stages = new TraceStage[capacity];
+        this.nanos = new long[capacity];
+        for (int i = 0; i < capacity; i++) published.set(i, -1);
+    }
+
+    void write(String traceId, TraceStage stage, long time) {
+        long seq = cursor.getAndIncrement();
+        int slot = (int) (seq & mask);
+        published.setRelease(slot, -1); // Mark in-progress so readers skip the half-written slot
+        VarHandle.storeStoreFence(); // ...and keep the field stores below from floating above that mark
+        traceIds[slot] = traceId;
+        stages[slot] = stage;
+        nanos[slot] = time;
+        published.setRelease(slot, seq);
+    }
+
+    void drainTo(List<Entry> out) {
+        long end = cursor.get();
+        for (long seq = Math.max(0, end - mask - 1); seq < end; seq++) {
+            int slot = (int) (seq & mask);
+            if (published.getAcquire(slot) != seq) continue;
+            String traceId = traceIds[slot];
+            TraceStage stage = stages[slot];
+            long time = nanos[slot];
+            VarHandle.loadLoadFence(); // Field reads must complete before the re-check
+            if (published.getAcquire(slot) != seq) continue; // Overwritten while reading
+            out.add(new Entry(traceId, stage, time));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2026 Kernx. All rights reserved.
+ * Licensed under the Business Source License 1.1.
+ */
+package io.kernx.core.trace;
+
+/**
+ * The Checkpoints a Packet Passes Through.
+ * Each stage names the span that ends at it, so the exporter can draw
+ * "mailbox" as ENQUEUED -> DEQUEUED, and so on.
+ */
+public enum TraceStage {
+    ADAPTER_IN(null, null),
+    DISPATCH_IN("ingress", ADAPTER_IN),
+    ENQUEUED("dispatch", DISPATCH_IN),
+    DEQUEUED("mailbox", ENQUEUED),
+    AI_START(null, null),
+    AI_END("ai", AI_START),
+    PROCESSED("process", DEQUEUED),
+    RESULT_STORED("result-store", PROCESSED);
+
+    final String span;
+    final TraceStage spanStart;
+
+    TraceStage(String span, TraceStage spanStart) {
+        this.span = span;
+        this.spanStart = spanStart;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2026 Kernx. All rights reserved.
+ * Licensed under the Business Source License 1.1.
+ */
+package io.kernx.core.trace;
+
+import io.kernx.core.protocol.KernxPacket;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The Packet Tracer.
+ * A sampled packet carries its trace id in {@code meta["kernx.trace"]}; every checkpoint it
+ * passes is timestamped into a striped ring buffer and mirrored as a JFR event.
+ *
+ * Untraced packets (the fast path) cost one {@code meta.isEmpty()} check per checkpoint:
+ * no allocation, no clock read, and a branch that is almost never taken.
+ */
+public class Tracer {
+
+    // Singleton Instance (Simple version)
+    public static final Tracer INSTANCE = new Tracer();
+
+    public static final String TRACE_KEY = "kernx.trace";
+
+    private static final int RING_CAPACITY = 4096;
+
+    // -1 = off; otherwise sample when (random & mask) == 0, i.e. 1 in (mask + 1)
+    private volatile int sampleMask = -1;
+    private volatile TraceRing[] rings;
+    private final ThreadLocal<String> current = new ThreadLocal<>();
+
+    /** Samples 1 in {@code every} packets (rounded up to a power of two); 0 turns tracing off. */
+    public synchronized void setSampleRate(int every) {
+        if (every <= 0) {
+            sampleMask = -1;
+            return;
+        }
+        if (rings == null) {
+            int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+            TraceRing[] created = new TraceRing[stripes];
+            for (int i = 0; i < stripes; i++) created[i] = new TraceRing(RING_CAPACITY);
+            rings = created;
+        }
+        sampleMask = every == 1 ? 0 : Integer.highestOneBit(every - 1) * 2 - 1;
+    }
+
+    public boolean enabled() {
+        return sampleMask >= 0;
+    }
+
+    /**
+     * Ingress decision, made once per packet by the adapter.
+     * @return the same packet if not sampled, otherwise a copy tagged with a trace id.
+     */
+    public KernxPacket sample(KernxPacket packet) {
+        int mask = sampleMask;
+        if (mask < 0 || (ThreadLocalRandom.current().nextInt() & mask) != 0) return packet;
+
+        var traced = new KernxPacket(packet.id(), packet.source(), packet.timestamp(),
+                packet.payload(), Map.of(TRACE_KEY, packet.id()));
+        record(packet.id(), TraceStage.ADAPTER_IN);
+        return traced;
+    }
+
+    /**
+     * The part of an inbound packet's meta that may follow it into a routed envelope: the
+     * trace id and nothing else. Every other kernx.* key is the kernel's own business.
+     */
+    public Map<String, String> propagate(Map<String, String> meta) {
+        if (meta.isEmpty()) return meta;
+        String trace = meta.get(TRACE_KEY);
+        if (trace == null) return Map.of();
+        return meta.size() == 1 ? meta : Map.of(TRACE_KEY, trace);
+    }
+
+    public void mark(KernxPacket packet, TraceStage stage) {
+        Map<String, String> meta = packet.meta();
+        if (meta.isEmpty()) return;
+        String trace = meta.get(TRACE_KEY);
+        if (trace != null) record(trace, stage);
+    }
+
+    public void mark(String traceId, TraceStage stage) {
+        if (traceId != null) record(traceId, stage);
+    }
+
+    /**
+     * Reads the clock for a traced packet, so a checkpoint can be timed before the
+     * operation and recorded after it succeeds. Returns 0 (no clock read) when untraced.
+     */
+    public long stamp(KernxPacket packet) {
+        Map<String, String> meta = packet.meta();
+        if (meta.isEmpty() || !meta.containsKey(TRACE_KEY)) return 0L;
+        return System.nanoTime();
+    }
+
+    public void mark(KernxPacket packet, TraceStage stage, long stampedAt) {
+        if (stampedAt == 0L) return;
+        record(packet.meta().get(TRACE_KEY), stage, stampedAt);
+    }
+
+    // Lets code that never sees the packet (e.g. AiProvider) attribute work to it
+    public boolean enter(KernxPacket packet) {
+        Map<String, String> meta = packet.meta();
+        if (meta.isEmpty()) return false;
+        String trace = meta.get(TRACE_KEY);
+        if (trace == null) return false;
+        current.set(trace);
+        return true;
+    }
+
+    public void exit() {
+        current.remove();
+    }
+
+    public String current() {
+        return current.get();
+    }
+
+    private void record(String traceId, TraceStage stage) {
+        record(traceId, stage, System.nanoTime());
+    }
+
+    private void record(String traceId, TraceStage stage, long nanos) {
+        TraceRing[] stripes = rings;
+        if (stripes == null) return;
+        long tid = Thread.currentThread().threadId();
+        stripes[(int) (tid ^ (tid >>> 16)) & (stripes.length - 1)].write(traceId, stage, nanos);
+
+        PacketStageEvent event = new PacketStageEvent();
+        if (event.shouldCommit()) {
+            event.traceId = traceId;
+            event.stage = stage.name();
+            event.commit();
+        }
+    }
+
+    /**
+     * Writes everything currently in the rings as Chrome Trace Event JSON
+     * (loadable in Perfetto or chrome://tracing). One row per traced packet, and one per
+     * broadcast member or in-kernel hop ("<trace>/<agentId>").
+     * @return number of checkpoints written.
+     */
+    public int exportChromeTrace(Path file) throws IOException {
+        List<TraceRing.Entry> entries = new ArrayList<>();
+        TraceRing[] stripes = rings;
+        if (stripes != null) {
+            for (TraceRing ring : stripes) ring.drainTo(entries);
+        }
+        entries.sort(Comparator.comparingLong(TraceRing.Entry::nanos));
+        long base = entries.isEmpty() ? 0 : entries.get(0).nanos();
+
+        Map<String, Integer> rows = new HashMap<>();
+        Map<String, Map<TraceStage, Long>> seen = new HashMap<>();
+
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("{\"displayTimeUnit\": \"ns\", \"traceEvents\": [\n");
+            boolean first = true;
+            for (TraceRing.Entry e : entries) {
+                Integer row = rows.get(e.traceId());
+                if (row == null) {
+                    row = rows.size() + 1;
+                    rows.put(e.traceId(), row);
+                    first = comma(out, first);
+                    out.write("{\"ph\": \"M\", \"name\": \"thread_name\", \"pid\": 1, \"tid\": %d, \"args\": {\"name\": \"%s\"}}"
+                            .formatted(row, escape(e.traceId())));
+                }
+                Map<TraceStage, Long> stagesSeen = seen.computeIfAbsent(e.traceId(), id -> new EnumMap<>(TraceStage.class));
+                stagesSeen.put(e.stage(), e.nanos());
+                first = comma(out, first);
+                out.write("{\"ph\": \"i\", \"s\": \"t\", \"name\": \"%s\", \"pid\": 1, \"tid\": %d, \"ts\": %s}"
+                        .formatted(e.stage(), row, micros(e.nanos() - base)));
+
+                Long start = e.stage().spanStart == null ? null : stagesSeen.get(e.stage().spanStart);
+                if (start != null) {
+                    first = comma(out, first);
+                    out.write("{\"ph\": \"X\", \"name\": \"%s\", \"pid\": 1, \"tid\": %d, \"ts\": %s, \"dur\": %s}"
+                            .formatted(e.stage().span, row, micros(start - base), micros(e.nanos() - start)));
+                }
+            }
+            out.write("\n]}\n");
+        }
+        return entries.size();
+    }
+
+    private static boolean comma(BufferedWriter out, boolean first) throws IOException {
+        if (!first) out.write(",\n");
+        return false;
+    }
+
+    private static String micros(long nanos) {
+        return String.valueOf(nanos / 1000.0);
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
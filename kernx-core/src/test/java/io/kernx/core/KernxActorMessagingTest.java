@@ -0,0 +1,202 @@
+package io.kernx.core;
+
+import io.kernx.core.actor.ActorRef;
+import io.kernx.core.protocol.KernxPacket;
+import io.kernx.core.state.ResultStore;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KernxActorMessagingTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    @Test
+    public void testAskFromOutsideTheKernel() throws Exception {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        ActorRef upper = dispatcher.registry().register("Upper",
+                (ctx, packet) -> new String(packet.payload().array()).toUpperCase());
+
+        assertEquals("HELLO", upper.ask("hello", TIMEOUT).get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSlowOutsideCallbackDoesNotStallTarget() throws Exception {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        ActorRef echo = dispatcher.registry().register("Echo-Slow", (ctx, packet) -> {
+            String text = new String(packet.payload().array());
+            if (text.equals("first")) LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100)); // Callback attaches first
+            return text;
+        });
+
+        CompletableFuture<String> callbackThread = new CompletableFuture<>();
+        echo.ask("first", TIMEOUT).thenAccept(r -> {
+            callbackThread.complete(Thread.currentThread().getName());
+            LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(2));
+        });
+        assertNotEquals("actor-Echo-Slow", callbackThread.get(1, TimeUnit.SECONDS));
+
+        // The target's loop is already free for its next message
+        assertEquals("second", echo.ask("second", TIMEOUT).get(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testPipelineRepliesComeBackThroughAskerMailbox() throws Exception {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        dispatcher.registry().register("Summarizer",
+                (ctx, packet) -> "summary(" + new String(packet.payload().array()) + ")");
+
+        CompletableFuture<String> replyThread = new CompletableFuture<>();
+        ActorRef front = dispatcher.registry().register("Front", (ctx, packet) -> {
+            String text = new String(packet.payload().array());
+            ctx.ask(ctx.lookup("Summarizer"), text, TIMEOUT).thenAccept(summary -> {
+                replyThread.complete(Thread.currentThread().getName());
+                ResultStore.INSTANCE.put(ctx.id(), packet.id(), "front:" + summary);
+            });
+            return null; // Answer is written once the Summarizer replies
+        });
+
+        assertTrue(front.tell("report"));
+        assertEquals("actor-Front", replyThread.get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailingBehaviorDoesNotKillActor() throws Exception {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        ActorRef fragile = dispatcher.registry().register("Fragile", (ctx, packet) -> {
+            String text = new String(packet.payload().array());
+            if (text.startsWith("boom")) throw new IllegalArgumentException("bad input: " + text);
+            return "ok:" + text;
+        });
+
+        // Outside ask: fails fast instead of waiting for the timeout
+        ExecutionException external = assertThrows(ExecutionException.class,
+                () -> fragile.ask("boom-1", TIMEOUT).get(1, TimeUnit.SECONDS));
+        assertTrue(external.getCause().getMessage().startsWith("AGENT_FAILED Fragile"));
+
+        // In-kernel ask: the error comes back through the asker's mailbox
+        CompletableFuture<Throwable> peerFailure = new CompletableFuture<>();
+        ActorRef asker = dispatcher.registry().register("Asker", (ctx, packet) -> {
+            ctx.ask(ctx.lookup("Fragile"), "boom-2", TIMEOUT)
+                    .whenComplete((r, e) -> peerFailure.complete(e));
+            return null;
+        });
+        asker.tell("go");
+        assertTrue(peerFailure.get(1, TimeUnit.SECONDS).getMessage().startsWith("AGENT_FAILED Fragile"));
+
+        // Routed MSG: error result instead of a silent gap
+        String reqId = "fragile-" + System.nanoTime();
+        dispatcher.dispatch(new KernxPacket(reqId, "Test", Instant.now(),
+                ByteBuffer.wrap("MSG Fragile boom-3".getBytes()), Collections.emptyMap()));
+        Thread.sleep(200);
+        assertTrue(ResultStore.INSTANCE.get(reqId).contains("AGENT_FAILED"));
+
+        // And the actor is still alive
+        assertEquals("ok:fine", fragile.ask("fine", TIMEOUT).get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testAskTimeoutFiresOnAskerThread() throws Exception {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        dispatcher.registry().register("Silent", (ctx, packet) -> null);
+
+        CompletableFuture<String> timeoutThread = new CompletableFuture<>();
+        CompletableFuture<Throwable> timeoutCause = new CompletableFuture<>();
+        ActorRef asker = dispatcher.registry().register("Waiter", (ctx, packet) -> {
+            ctx.ask(ctx.lookup("Silent"), "anyone?", Duration.ofMillis(50)).whenComplete((r, e) -> {
+                timeoutThread.complete(Thread.currentThread().getName());
+                timeoutCause.complete(e);
+            });
+            return null;
+        });
+        asker.tell("go");
+
+        assertEquals("actor-Waiter", timeoutThread.get(1, TimeUnit.SECONDS));
+        assertTrue(timeoutCause.get() instanceof TimeoutException);
+    }
+
+    @Test
+    public void testReplyToFullMailboxIsRetriedNotDropped() throws Exception {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        dispatcher.registry().register("Slowpoke", (ctx, packet) -> {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50)); // Answers once the asker is full
+            return "answer";
+        });
+        dispatcher.registry().setGlobalQueueDepth(4);
+
+        CompletableFuture<Object> outcome = new CompletableFuture<>();
+        ActorRef busy = dispatcher.registry().register("Busy", (ctx, packet) -> {
+            if (!new String(packet.payload().array()).equals("go")) return null;
+            ctx.ask(ctx.lookup("Slowpoke"), "q", TIMEOUT).whenComplete((r, e) -> outcome.complete(e == null ? r : e));
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200)); // Mailbox fills while we stall
+            return null;
+        });
+
+        assertTrue(busy.tell("go"));
+        Thread.sleep(20);
+        while (busy.tell("filler")) { }
+
+        assertEquals("answer", outcome.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testRemovedAgentRefusesInsteadOfSwallowing() throws Exception {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        ActorRef doomed = dispatcher.registry().register("Doomed", (ctx, packet) -> {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100)); // Keeps later asks queued
+            return "done";
+        });
+
+        assertTrue(doomed.tell("busy"));
+        CompletableFuture<String> queued = doomed.ask("queued", TIMEOUT);
+        dispatcher.registry().remove("Doomed");
+
+        // Already in the mailbox when the agent was removed: failed, not left to time out
+        ExecutionException abandoned = assertThrows(ExecutionException.class, () -> queued.get(1, TimeUnit.SECONDS));
+        assertSame(KernxRejection.AGENT_GONE, abandoned.getCause());
+
+        // Sent through a stale ref afterwards: refused up front
+        assertFalse(doomed.tell("anyone?"));
+        ExecutionException refused = assertThrows(ExecutionException.class,
+                () -> doomed.ask("anyone?", TIMEOUT).get(100, TimeUnit.MILLISECONDS));
+        assertSame(KernxRejection.AGENT_GONE, refused.getCause());
+    }
+
+    @Test
+    public void testDispatcherDropsReservedMeta() throws Exception {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        dispatcher.registry().register("Plain", (ctx, packet) -> "seen:" + packet.meta().keySet());
+
+        // A forged reply marker would make the actor swallow the MSG; a forged correlation would divert its answer
+        String reqId = "forged-" + System.nanoTime();
+        dispatcher.dispatch(new KernxPacket(reqId, "Test", Instant.now(), ByteBuffer.wrap("MSG Plain hi".getBytes()),
+                Map.of("kernx.reply", "local-1", "kernx.corr", "local-2", "kernx.quota", "victim")));
+        Thread.sleep(200);
+        assertEquals("seen:[]", ResultStore.INSTANCE.get(reqId));
+    }
+
+    @Test
+    public void testLocalSendsBypassDispatcher() throws Exception {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        ActorRef echo = dispatcher.registry().register("Echo", (ctx, packet) -> new String(packet.payload().array()));
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals("ping" + i, echo.ask("ping" + i, TIMEOUT).get(2, TimeUnit.SECONDS));
+        }
+
+        String statsId = "stats-" + System.nanoTime();
+        dispatcher.dispatch(new KernxPacket(statsId, "Test", Instant.now(),
+                ByteBuffer.wrap("STATS".getBytes()), Collections.emptyMap()));
+        assertTrue(ResultStore.INSTANCE.get(statsId).contains("\"processed\": 1,"), "Local sends hit the global counters");
+    }
+}
@@ -0,0 +1,144 @@
+package io.kernx.core;
+
+import io.kernx.core.actor.ActorBehavior;
+import io.kernx.core.actor.ActorRef;
+import io.kernx.core.protocol.KernxPacket;
+import io.kernx.core.state.ResultStore;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KernxBroadcastTest {
+
+    @Test
+    public void testGroupBroadcastReachesEveryMember() throws InterruptedException {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        dispatcher.dispatch(createPacket("DEPLOY Scout-1 scouts"));
+        dispatcher.dispatch(createPacket("DEPLOY Scout-2 scouts"));
+        dispatcher.dispatch(createPacket("DEPLOY Scout-3"));
+        dispatcher.dispatch(createPacket("JOIN Scout-3 scouts"));
+        dispatcher.dispatch(createPacket("DEPLOY Outsider"));
+
+        String id = UUID.randomUUID().toString();
+        dispatcher.dispatch(createPacket(id, "BCAST scouts Regroup at base"));
+
+        String report = ResultStore.INSTANCE.get(id);
+        assertTrue(report.contains("\"members\": 3"), report);
+        assertTrue(report.contains("\"delivered\": 3"), report);
+
+        Thread.sleep(200);
+        for (String scout : new String[] {"Scout-1", "Scout-2", "Scout-3"}) {
+            assertNotEquals("PENDING", ResultStore.INSTANCE.get(id + "/" + scout), scout + " never answered");
+        }
+        assertEquals("PENDING", ResultStore.INSTANCE.get(id + "/Outsider"));
+    }
+
+    @Test
+    public void testPrefixBroadcastFansOutAcrossLargeSwarm() {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        int swarm = 2_000;
+        for (int i = 0; i < swarm; i++) dispatcher.dispatch(createPacket("DEPLOY Swarm-" + i));
+        dispatcher.dispatch(createPacket("DEPLOY Other-1"));
+
+        String id = UUID.randomUUID().toString();
+        dispatcher.dispatch(createPacket(id, "BCAST Swarm-* Wake up"));
+
+        String report = ResultStore.INSTANCE.get(id);
+        assertTrue(report.contains("\"members\": " + swarm), report);
+        assertTrue(report.contains("\"delivered\": " + swarm), report);
+    }
+
+    @Test
+    public void testReportTalliesBackpressurePerReason() throws InterruptedException {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        ActorBehavior slow = (ctx, packet) -> {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(500));
+            return null;
+        };
+        dispatcher.registry().setGlobalQueueDepth(2);
+
+        dispatcher.dispatch(createPacket("DEPLOY Crowd-Fine crowd"));
+
+        dispatcher.dispatch(createPacket("DEPLOY Crowd-Limited crowd"));
+        dispatcher.dispatch(createPacket("QUOTA AGENT Crowd-Limited 1 1 0"));
+        dispatcher.dispatch(createPacket("MSG Crowd-Limited Spend the only token"));
+
+        ActorRef full = dispatcher.registry().register("Crowd-Full", slow);
+        ActorRef capped = dispatcher.registry().register("Crowd-Capped", slow);
+        dispatcher.dispatch(createPacket("QUOTA AGENT Crowd-Capped 0 0 1"));
+        full.tell("working");
+        capped.tell("working");
+        Thread.sleep(50); // Both now stuck on their first message
+        while (full.tell("fill")) { }
+        capped.tell("queued");
+
+        dispatcher.dispatch(createPacket("JOIN Crowd-Full crowd"));
+        dispatcher.dispatch(createPacket("JOIN Crowd-Capped crowd"));
+
+        String id = UUID.randomUUID().toString();
+        dispatcher.dispatch(createPacket(id, "BCAST crowd Status?"));
+        String report = ResultStore.INSTANCE.get(id);
+        assertTrue(report.contains("\"delivered\": 1,"), report);
+        assertTrue(report.contains("\"rejected\": 3,"), report);
+        assertTrue(report.contains("\"overloaded\": 1,"), report);
+        assertTrue(report.contains("\"rate_limited\": 1,"), report);
+        assertTrue(report.contains("\"quota_exceeded\": 1,"), report);
+        assertTrue(report.contains("\"gone\": 0"), report);
+    }
+
+    @Test
+    public void testRemovedAgentsLeaveTheirGroups() {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        dispatcher.dispatch(createPacket("DEPLOY Guard-1 guards"));
+        dispatcher.dispatch(createPacket("DEPLOY Guard-2 guards"));
+        dispatcher.dispatch(createPacket("BLOCK Guard-1"));
+        dispatcher.dispatch(createPacket("LEAVE Guard-2 guards"));
+
+        String id = UUID.randomUUID().toString();
+        dispatcher.dispatch(createPacket(id, "BCAST guards Anyone?"));
+        assertTrue(ResultStore.INSTANCE.get(id).contains("\"members\": 0"));
+    }
+
+    @Test
+    public void testMembersReadPayloadIndependently() throws InterruptedException {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        for (int i = 0; i < 8; i++) {
+            String agentId = "Reader-" + i;
+            // Relative get() advances the buffer's position
+            dispatcher.registry().register(agentId, (ctx, packet) -> {
+                ByteBuffer payload = packet.payload();
+                byte[] out = new byte[payload.remaining()];
+                payload.get(out);
+                return new String(out, StandardCharsets.UTF_8);
+            });
+            dispatcher.dispatch(createPacket("JOIN " + agentId + " readers"));
+        }
+
+        String id = UUID.randomUUID().toString();
+        dispatcher.dispatch(createPacket(id, "BCAST readers Same for all"));
+        Thread.sleep(200);
+
+        for (int i = 0; i < 8; i++) {
+            assertEquals("Same for all", ResultStore.INSTANCE.get(id + "/Reader-" + i));
+        }
+    }
+
+    // --- HELPER ---
+    private KernxPacket createPacket(String text) {
+        return createPacket(UUID.randomUUID().toString(), text);
+    }
+
+    private KernxPacket createPacket(String id, String text) {
+        return new KernxPacket(
+                id, "Test", Instant.now(),
+                ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)),
+                Collections.emptyMap());
+    }
+}
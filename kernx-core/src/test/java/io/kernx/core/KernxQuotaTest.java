@@ -0,0 +1,186 @@
+package io.kernx.core;
+
+import io.kernx.core.protocol.KernxPacket;
+import io.kernx.core.quota.Quota;
+import io.kernx.core.quota.QuotaTable;
+import io.kernx.core.state.ResultStore;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KernxQuotaTest {
+
+    @Test
+    public void testNoisySourceIsThrottledWithoutHurtingOthers() {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        dispatcher.dispatch(createPacket("Admin", "DEPLOY Agent-Shared"));
+        dispatcher.dispatch(createPacket("Admin", "QUOTA SOURCE Noisy 1 5 0"));
+
+        int noisyAccepted = 0;
+        for (int i = 0; i < 50; i++) {
+            try {
+                dispatcher.dispatch(createPacket("Noisy", "MSG Agent-Shared Spam" + i));
+                noisyAccepted++;
+            } catch (KernxRejection e) {
+                assertSame(KernxRejection.SOURCE_RATE_LIMITED, e);
+            }
+        }
+        assertTrue(noisyAccepted >= 5 && noisyAccepted <= 6, "Burst not enforced: " + noisyAccepted);
+
+        // The polite tenant still gets through
+        dispatcher.dispatch(createPacket("Polite", "MSG Agent-Shared Hello"));
+
+        String statsId = UUID.randomUUID().toString();
+        dispatcher.dispatch(new KernxPacket(statsId, "Admin", Instant.now(),
+                ByteBuffer.wrap("STATS".getBytes(StandardCharsets.UTF_8)), Collections.emptyMap()));
+        assertTrue(ResultStore.INSTANCE.get(statsId).contains("\"throttled\": " + (50 - noisyAccepted)));
+    }
+
+    @Test
+    public void testThrottlesAreCountedPerSourceAndAgent() {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        dispatcher.dispatch(createPacket("Admin", "DEPLOY Agent-Counted"));
+        dispatcher.dispatch(createPacket("Admin", "QUOTA SOURCE Counted 1 2 0"));
+        dispatcher.dispatch(createPacket("Admin", "QUOTA AGENT Agent-Counted 1 1 0"));
+
+        int throttled = 0;
+        for (int i = 0; i < 5; i++) {
+            try {
+                dispatcher.dispatch(createPacket("Counted", "MSG Agent-Counted Hi"));
+            } catch (KernxRejection e) {
+                throttled++;
+            }
+        }
+        // Source bucket lets 2 through; the agent bucket then admits 1 of those
+        assertEquals(4, throttled);
+        assertTrue(quotaStats(dispatcher, "SOURCE Counted").contains("\"throttled\": 3"));
+        assertTrue(quotaStats(dispatcher, "AGENT Agent-Counted").contains("\"throttled\": 1"));
+        assertEquals("QUOTA_NOT_FOUND", quotaStats(dispatcher, "SOURCE Nobody"));
+    }
+
+    @Test
+    public void testInFlightQuotaIsReleasedAfterProcessing() throws InterruptedException {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        dispatcher.dispatch(createPacket("Admin", "DEPLOY Agent-InFlight"));
+        dispatcher.dispatch(createPacket("Admin", "QUOTA SOURCE Tenant 0 0 2"));
+
+        int accepted = 0;
+        for (int i = 0; i < 200; i++) {
+            try {
+                dispatcher.dispatch(createPacket("Tenant", "MSG Agent-InFlight Job" + i));
+                accepted++;
+            } catch (KernxRejection e) {
+                // Quota full: let the actor drain
+                Thread.sleep(1);
+            }
+        }
+        assertTrue(accepted > 2, "In-flight slots were never released");
+        Thread.sleep(100);
+        assertEquals(0, dispatcher.quotas().source("Tenant").inFlight());
+    }
+
+    @Test
+    public void testDefaultQuotaCoversUnnamedSources() {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        dispatcher.dispatch(createPacket("Admin", "DEPLOY Agent-Default"));
+        dispatcher.dispatch(createPacket("Admin", "QUOTA SOURCE * 1 2 0"));
+        dispatcher.dispatch(createPacket("Admin", "QUOTA SOURCE Vip 0 0 0"));
+
+        // Rotating the tenant name only ever buys each new name the default burst
+        int accepted = 0;
+        for (int tenant = 0; tenant < 10; tenant++) {
+            for (int i = 0; i < 5; i++) {
+                try {
+                    dispatcher.dispatch(createPacket("Rotating-" + tenant, "MSG Agent-Default Spam"));
+                    accepted++;
+                } catch (KernxRejection e) {
+                    assertSame(KernxRejection.SOURCE_RATE_LIMITED, e);
+                }
+            }
+        }
+        assertTrue(accepted >= 20 && accepted <= 30, "Default quota not applied: " + accepted);
+
+        // Named quotas override the default
+        for (int i = 0; i < 20; i++) {
+            dispatcher.dispatch(createPacket("Vip", "MSG Agent-Default Important"));
+        }
+    }
+
+    @Test
+    public void testOnlySlotHoldersReleaseInFlight() {
+        QuotaTable quotas = new QuotaTable();
+        quotas.limitSource("Tenant", 0, 0, 1);
+        Quota quota = quotas.source("Tenant");
+
+        assertTrue(quota.tryAcquire());
+        KernxPacket held = quotas.holdSlot(createPacket("Tenant", "MSG A One"), quota);
+
+        // Queued before the limit existed, or sent in-kernel: never took a slot
+        quotas.release(createPacket("Tenant", "MSG A Old"));
+        assertEquals(1, quota.inFlight());
+        assertFalse(quota.tryAcquire(), "Untagged release let the tenant exceed its cap");
+
+        quotas.release(held);
+        assertEquals(0, quota.inFlight());
+    }
+
+    @Test
+    public void testIdleTenantsAreEvictedInsteadOfSharingOverflow() {
+        QuotaTable quotas = new QuotaTable();
+        quotas.limitSource(QuotaTable.DEFAULT_SOURCE, 1, 1, 0);
+        long t0 = 0;
+        for (int i = 0; i < 65_536; i++) {
+            assertTrue(quotas.source("Churn-" + i, t0).tryRate(t0));
+        }
+
+        // Every tracked tenant just spent its token: the newcomer has to share for now
+        assertEquals(QuotaTable.DEFAULT_SOURCE, quotas.source("Newcomer-1", t0).key());
+
+        // Once they go idle, their buckets make room and newcomers get their own again
+        long later = t0 + 2_000_000_000L;
+        assertEquals("Newcomer-2", quotas.source("Newcomer-2", later).key());
+        assertEquals("Newcomer-3", quotas.source("Newcomer-3", later).key());
+        assertNull(quotas.source("Churn-0"));
+    }
+
+    @Test
+    public void testQuotaCanBeLifted() {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        dispatcher.dispatch(createPacket("Admin", "DEPLOY Agent-Lift"));
+        dispatcher.dispatch(createPacket("Admin", "QUOTA AGENT Agent-Lift 1 1 0"));
+
+        dispatcher.dispatch(createPacket("Any", "MSG Agent-Lift First"));
+        assertThrows(KernxRejection.class,
+                () -> dispatcher.dispatch(createPacket("Any", "MSG Agent-Lift Second")));
+
+        dispatcher.dispatch(createPacket("Admin", "QUOTA AGENT Agent-Lift OFF"));
+        dispatcher.dispatch(createPacket("Any", "MSG Agent-Lift Third"));
+    }
+
+    @Test
+    public void testSharedRejectionsStayImmutable() {
+        KernxRejection rejection = KernxRejection.SOURCE_RATE_LIMITED;
+        rejection.addSuppressed(new RuntimeException("from some try-with-resources"));
+        assertEquals(0, rejection.getSuppressed().length);
+        assertEquals(0, rejection.getStackTrace().length);
+    }
+
+    // --- HELPER ---
+    private String quotaStats(KernxDispatcher dispatcher, String target) {
+        KernxPacket query = createPacket("Admin", "QUOTA STATS " + target);
+        dispatcher.dispatch(query);
+        return ResultStore.INSTANCE.get(query.id());
+    }
+
+    private KernxPacket createPacket(String source, String text) {
+        return new KernxPacket(
+                UUID.randomUUID().toString(), source, Instant.now(),
+                ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)),
+                Collections.emptyMap());
+    }
+}
@@ -0,0 +1,185 @@
+package io.kernx.core;
+
+import io.kernx.core.protocol.IdSource;
+import io.kernx.core.protocol.KernxClock;
+import io.kernx.core.protocol.KernxPacket;
+import io.kernx.core.replay.PacketRecorder;
+import io.kernx.core.replay.PacketReplayer;
+import io.kernx.core.replay.ReplayReport;
+import io.kernx.core.state.ResultStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KernxReplayTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    public void testRecordThenReplayAsFastAsPossible() throws Exception {
+        Path file = tmp.resolve("session.krnx");
+        int messages = 1_000;
+
+        try (PacketRecorder recorder = new PacketRecorder(file)) {
+            recorder.record(createPacket("DEPLOY Agent-Replay"));
+            for (int i = 0; i < messages; i++) {
+                recorder.record(createPacket("MSG Agent-Replay Work-" + i));
+            }
+            assertEquals(messages + 1, recorder.recorded());
+        }
+
+        // Compact: one source string, tiny varint headers, raw payloads
+        assertTrue(Files.size(file) < (messages + 1) * 32L, "Recording too large: " + Files.size(file));
+
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        var replayer = new PacketReplayer(KernxClock.system(), IdSource.sequential("replay-test-"), PacketReplayer.MAX_SPEED);
+        ReplayReport report = replayer.replay(file, dispatcher);
+
+        assertEquals(messages + 1, report.dispatched() + report.rejected());
+        assertEquals(0, report.blocked());
+        assertEquals(0, report.malformed());
+        assertEquals("DEPLOY_SUCCESS", ResultStore.INSTANCE.get("replay-test-1"));
+    }
+
+    @Test
+    public void testReplayIsDeterministic() throws Exception {
+        Path file = tmp.resolve("deterministic.krnx");
+        try (PacketRecorder recorder = new PacketRecorder(file)) {
+            for (int i = 0; i < 20; i++) {
+                recorder.record(createPacket("MSG Agent-Det Job-" + i));
+            }
+            recorder.record(createPacket("STATS"));
+        }
+
+        List<String> first = replayObserved(file);
+        List<String> second = replayObserved(file);
+
+        assertEquals(41, first.size());
+        assertTrue(first.get(0).startsWith("det-1@1970-01-01T"), "Ids/timestamps not from the injected sources: " + first.get(0));
+        assertEquals(first, second, "Same recording, same clock and ids, different run");
+    }
+
+    @Test
+    public void testMalformedTrafficDoesNotAbortReplay() throws Exception {
+        Path file = tmp.resolve("malformed.krnx");
+        try (PacketRecorder recorder = new PacketRecorder(file)) {
+            recorder.record(createPacket("DEPLOY"));
+            recorder.record(createPacket("QUOTA SOURCE x abc 1 1"));
+            recorder.record(createPacket("STATS"));
+        }
+
+        ReplayReport report = new PacketReplayer(PacketReplayer.MAX_SPEED).replay(file, new KernxDispatcher());
+        assertEquals(2, report.malformed());
+        assertEquals(1, report.dispatched());
+    }
+
+    @Test
+    public void testReplayHonoursOriginalTiming() throws Exception {
+        Path file = tmp.resolve("paced.krnx");
+        try (PacketRecorder recorder = new PacketRecorder(file)) {
+            recorder.record(createPacket("STATS"));
+            Thread.sleep(200);
+            recorder.record(createPacket("STATS"));
+        }
+
+        ReplayReport original = new PacketReplayer(PacketReplayer.ORIGINAL_SPEED).replay(file, new KernxDispatcher());
+        ReplayReport fast = new PacketReplayer(10).replay(file, new KernxDispatcher());
+
+        assertTrue(original.elapsedNanos() >= 190_000_000L, "Original pace not respected");
+        assertTrue(fast.elapsedNanos() < original.elapsedNanos(), "10x replay was not faster");
+    }
+
+    @Test
+    public void testRecorderFailureDoesNotReachIngestion() throws Exception {
+        // A disk that fills up after 1 KB
+        OutputStream full = new OutputStream() {
+            private int written;
+            @Override
+            public void write(int b) throws IOException {
+                if (++written > 1024) throw new IOException("No space left on device");
+            }
+        };
+
+        PacketRecorder recorder = new PacketRecorder(full, KernxClock.system());
+        for (int i = 0; i < 10_000; i++) {
+            recorder.record(createPacket("MSG Agent-Disk Work-" + i)); // Must never throw
+        }
+        assertFalse(recorder.active());
+        assertTrue(recorder.recorded() < 10_000);
+        recorder.close();
+    }
+
+    @Test
+    public void testRecorderFlushesWithoutWaitingForClose() throws Exception {
+        ByteArrayOutputStream disk = new ByteArrayOutputStream();
+        PacketRecorder recorder = new PacketRecorder(disk, steppingClock(50_000_000L));
+
+        recorder.record(createPacket("STATS"));
+        recorder.record(createPacket("STATS"));
+        recorder.record(createPacket("STATS"));
+
+        // Well under the 64 KB buffer, but past the flush interval: already on disk
+        assertTrue(disk.size() > 5, "Recording still sitting in the buffer");
+
+        // And a tail cut mid-record (the crash case) still replays what made it
+        byte[] torn = Arrays.copyOf(disk.toByteArray(), disk.size() - 2);
+        Path file = tmp.resolve("torn.krnx");
+        Files.write(file, torn);
+        ReplayReport report = new PacketReplayer(PacketReplayer.MAX_SPEED).replay(file, new KernxDispatcher());
+        assertTrue(report.dispatched() >= 1);
+    }
+
+    // --- HELPER ---
+    private KernxPacket createPacket(String text) {
+        return KernxPacket.create("Test", text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Replays into a fresh kernel; returns the id@timestamp of every packet the agent saw, then every result
+    private List<String> replayObserved(Path file) throws Exception {
+        KernxClock clock = steppingClock(1_000_000L);
+        KernxDispatcher dispatcher = new KernxDispatcher(clock);
+        List<String> seen = new CopyOnWriteArrayList<>();
+        dispatcher.registry().register("Agent-Det", (ctx, packet) -> {
+            ResultStore.INSTANCE.put(ctx.id(), packet.id(), "done:" + new String(packet.payload().array(), StandardCharsets.UTF_8));
+            seen.add(packet.id() + "@" + packet.timestamp()); // Last, so a full list means every result is in
+            return null;
+        });
+
+        ReplayReport report = new PacketReplayer(clock, IdSource.sequential("det-"), PacketReplayer.MAX_SPEED)
+                .replay(file, dispatcher);
+        assertEquals(21, report.dispatched());
+        for (int wait = 0; seen.size() < 20 && wait < 200; wait++) Thread.sleep(5);
+
+        List<String> observed = new ArrayList<>(seen);
+        for (int i = 1; i <= 21; i++) observed.add(ResultStore.INSTANCE.get("det-" + i));
+        return observed;
+    }
+
+    // Advances by a fixed step on every read, so pacing and flush intervals are deterministic
+    private KernxClock steppingClock(long stepNanos) {
+        return new KernxClock() {
+            private long nanos;
+            @Override
+            public Instant now() {
+                return Instant.EPOCH.plusNanos(nanos);
+            }
+            @Override
+            public long nanoTime() {
+                return nanos += stepNanos;
+            }
+        };
+    }
+}
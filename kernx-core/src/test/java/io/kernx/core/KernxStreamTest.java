@@ -0,0 +1,152 @@
+package io.kernx.core;
+
+import io.kernx.core.protocol.KernxPacket;
+import io.kernx.core.state.ResultEvent;
+import io.kernx.core.state.ResultStore;
+import io.kernx.core.state.ResultSubscription;
+import io.kernx.core.state.ResultSubscription.SlowConsumerPolicy;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KernxStreamTest {
+
+    private static final long WAIT = TimeUnit.SECONDS.toNanos(2);
+    private static final long AI_WAIT = TimeUnit.SECONDS.toNanos(5); // The mock model "thinks" for 2s
+
+    @Test
+    public void testAgentOutputsArePushedToSubscribers() {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        String agentId = "Agent-Stream";
+        dispatcher.dispatch(createPacket("DEPLOY " + agentId));
+
+        try (ResultSubscription sub = ResultStore.INSTANCE.subscribeAgent(agentId, 64, SlowConsumerPolicy.DROP)) {
+            String reqId = UUID.randomUUID().toString();
+            dispatcher.dispatch(new KernxPacket(reqId, "Client", Instant.now(),
+                    ByteBuffer.wrap(("MSG " + agentId + " Task").getBytes()), Collections.emptyMap()));
+
+            ResultEvent event = sub.poll(WAIT);
+            assertNotNull(event, "Actor output never reached the subscriber");
+            assertEquals(reqId, event.requestId());
+            assertEquals(agentId, event.agentId());
+            assertTrue(event.last());
+        }
+    }
+
+    @Test
+    public void testPartialFramesPrecedeFinalAnswer() {
+        String reqId = UUID.randomUUID().toString();
+        try (ResultSubscription sub = ResultStore.INSTANCE.subscribeRequest(reqId, 16, SlowConsumerPolicy.DROP)) {
+            ResultStore.INSTANCE.emit("Agent-Tokens", reqId, "Hello ");
+            ResultStore.INSTANCE.emit("Agent-Tokens", reqId, "World");
+            ResultStore.INSTANCE.put("Agent-Tokens", reqId, "Hello World");
+
+            assertEquals("Hello ", sub.poll(WAIT).data());
+            assertEquals("World", sub.poll(WAIT).data());
+            ResultEvent last = sub.poll(WAIT);
+            assertTrue(last.last());
+            assertEquals("Hello World", last.data());
+        }
+    }
+
+    @Test
+    public void testAiTokensAreStreamedAsPartialFrames() {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        dispatcher.registry().register("Agent-Ai", (ctx, packet) -> {
+            String text = new String(packet.payload().array(), StandardCharsets.UTF_8);
+            ctx.ai().stream(text, token -> ctx.emit(packet, token))
+                    .thenAccept(answer -> ResultStore.INSTANCE.put(ctx.id(), packet.id(), answer));
+            return null; // Answer is stored once the last token is in
+        });
+
+        String reqId = UUID.randomUUID().toString();
+        try (ResultSubscription sub = ResultStore.INSTANCE.subscribeRequest(reqId, 64, SlowConsumerPolicy.DROP)) {
+            dispatcher.dispatch(new KernxPacket(reqId, "Client", Instant.now(),
+                    ByteBuffer.wrap("MSG Agent-Ai Review this".getBytes()), Collections.emptyMap()));
+
+            StringBuilder streamed = new StringBuilder();
+            int partials = 0;
+            ResultEvent event;
+            while (!(event = sub.poll(AI_WAIT)).last()) {
+                assertEquals("Agent-Ai", event.agentId());
+                streamed.append(event.data());
+                partials++;
+            }
+            assertTrue(partials > 1, "Answer was not streamed token by token");
+            assertEquals(event.data(), streamed.toString());
+        }
+    }
+
+    @Test
+    public void testLateSubscriberGetsFinalFrameOnce() throws Exception {
+        for (int i = 0; i < 20_000; i++) {
+            String reqId = UUID.randomUUID().toString();
+            AtomicBoolean go = new AtomicBoolean(false);
+            Thread publisher = Thread.ofPlatform().start(() -> {
+                while (!go.get()) Thread.onSpinWait();
+                ResultStore.INSTANCE.put("Agent-Race", reqId, "answer");
+            });
+            go.set(true);
+            try (ResultSubscription sub = ResultStore.INSTANCE.subscribeRequest(reqId, 16, SlowConsumerPolicy.DROP)) {
+                publisher.join();
+                ResultEvent first = sub.poll(WAIT);
+                assertNotNull(first, "Final frame lost");
+                assertTrue(first.last());
+                assertNull(sub.poll(0), "Final frame delivered twice");
+            }
+        }
+    }
+
+    @Test
+    public void testSlowConsumerNeverBlocksPublisher() {
+        String agentId = "Agent-Firehose";
+        try (ResultSubscription dropping = ResultStore.INSTANCE.subscribeAgent(agentId, 4, SlowConsumerPolicy.DROP);
+             ResultSubscription strict = ResultStore.INSTANCE.subscribeAgent(agentId, 4, SlowConsumerPolicy.DISCONNECT)) {
+
+            long start = System.nanoTime();
+            for (int i = 0; i < 10_000; i++) {
+                ResultStore.INSTANCE.emit(agentId, "req-" + i, "chunk");
+            }
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "Publisher was held up");
+
+            assertEquals(10_000 - 4, dropping.takeDropped());
+            assertFalse(dropping.isClosed());
+            assertTrue(strict.isClosed());
+            assertTrue(strict.overflowed());
+        }
+    }
+
+    @Test
+    public void testRacingClosesUnregisterOnce() throws Exception {
+        String agentId = "Agent-Racing-Close";
+        try (ResultSubscription survivor = ResultStore.INSTANCE.subscribeAgent(agentId, 16, SlowConsumerPolicy.DROP)) {
+            for (int i = 0; i < 1_000; i++) {
+                ResultSubscription victim = ResultStore.INSTANCE.subscribeAgent(agentId, 2, SlowConsumerPolicy.DISCONNECT);
+                Thread other = Thread.ofVirtual().start(victim::close);
+                victim.close();
+                other.join();
+            }
+
+            // A double unregister would zero the listener count and silence publishing
+            ResultStore.INSTANCE.emit(agentId, "req-survivor", "still here");
+            ResultEvent event = survivor.poll(WAIT);
+            assertNotNull(event, "Live subscriber stopped receiving after racing closes");
+            assertEquals("still here", event.data());
+        }
+    }
+
+    // --- HELPER ---
+    private KernxPacket createPacket(String text) {
+        return new KernxPacket(
+                UUID.randomUUID().toString(), "Test", Instant.now(),
+                ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)),
+                Collections.emptyMap());
+    }
+}
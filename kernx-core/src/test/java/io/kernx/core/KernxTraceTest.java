@@ -0,0 +1,101 @@
+package io.kernx.core;
+
+import io.kernx.core.protocol.KernxPacket;
+import io.kernx.core.state.ResultStore;
+import io.kernx.core.trace.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KernxTraceTest {
+
+    @TempDir
+    Path tmp;
+
+    @AfterEach
+    public void tracingOff() {
+        Tracer.INSTANCE.setSampleRate(0);
+    }
+
+    @Test
+    public void testSampledPacketIsTracedEndToEnd() throws Exception {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        dispatcher.dispatch(createPacket("DEPLOY Agent-Traced"));
+
+        Tracer.INSTANCE.setSampleRate(1);
+        KernxPacket packet = Tracer.INSTANCE.sample(createPacket("MSG Agent-Traced Hello"));
+        assertEquals(packet.id(), packet.meta().get(Tracer.TRACE_KEY));
+        dispatcher.dispatch(packet);
+        Thread.sleep(200);
+
+        Path file = tmp.resolve("trace.json");
+        assertTrue(Tracer.INSTANCE.exportChromeTrace(file) >= 6);
+        String json = Files.readString(file);
+        for (String span : new String[] {"\"ingress\"", "\"dispatch\"", "\"mailbox\"", "\"process\"", "\"result-store\""}) {
+            assertTrue(json.contains(span), "Missing span " + span);
+        }
+        assertTrue(json.contains(packet.id()));
+    }
+
+    @Test
+    public void testBroadcastMembersGetTheirOwnRows() throws Exception {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        dispatcher.dispatch(createPacket("DEPLOY Fan-A fans"));
+        dispatcher.dispatch(createPacket("DEPLOY Fan-B fans"));
+
+        Tracer.INSTANCE.setSampleRate(1);
+        KernxPacket packet = Tracer.INSTANCE.sample(createPacket("BCAST fans Hello"));
+        dispatcher.dispatch(packet);
+        Thread.sleep(200);
+
+        Path file = tmp.resolve("bcast.json");
+        Tracer.INSTANCE.exportChromeTrace(file);
+        String json = Files.readString(file);
+        for (String member : new String[] {"Fan-A", "Fan-B"}) {
+            String row = "\"" + packet.id() + "/" + member + "\"";
+            assertTrue(json.contains(row), "Missing row " + row);
+        }
+        assertTrue(json.contains("\"dispatch\""));
+    }
+
+    @Test
+    public void testTraceFollowsInKernelHops() throws Exception {
+        KernxDispatcher dispatcher = new KernxDispatcher();
+        dispatcher.registry().register("Hop-Summarizer", (ctx, packet) -> "summary");
+        dispatcher.registry().register("Hop-Front", (ctx, packet) -> {
+            ctx.ask(ctx.lookup("Hop-Summarizer"), "text", Duration.ofSeconds(2))
+                    .thenAccept(s -> ResultStore.INSTANCE.put(ctx.id(), packet.id(), s));
+            return null;
+        });
+
+        Tracer.INSTANCE.setSampleRate(1);
+        KernxPacket packet = Tracer.INSTANCE.sample(createPacket("MSG Hop-Front go"));
+        dispatcher.dispatch(packet);
+        Thread.sleep(200);
+        assertEquals("summary", ResultStore.INSTANCE.get(packet.id()));
+
+        Path file = tmp.resolve("hops.json");
+        Tracer.INSTANCE.exportChromeTrace(file);
+        String json = Files.readString(file);
+        String hop = packet.id() + "/Hop-Summarizer";
+        assertTrue(json.contains("\"" + hop + "\""), "Missing hop row");
+        assertTrue(json.contains("\"" + hop + "/Hop-Front\""), "Missing reply row");
+    }
+
+    @Test
+    public void testUntracedPacketsAreLeftAlone() {
+        KernxPacket packet = createPacket("MSG Nobody Hi");
+        assertSame(packet, Tracer.INSTANCE.sample(packet), "Sampling off must not copy the packet");
+    }
+
+    // --- HELPER ---
+    private KernxPacket createPacket(String text) {
+        return KernxPacket.create("Test", text.getBytes(StandardCharsets.UTF_8));
+    }
+}